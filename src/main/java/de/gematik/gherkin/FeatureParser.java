@@ -7,36 +7,88 @@ import de.gematik.gherkin.model.Scenario;
 import de.gematik.gherkin.model.ScenarioOutline;
 import de.gematik.gherkin.model.Step;
 import de.gematik.gherkin.model.Tag;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
-import lombok.SneakyThrows;
-import org.apache.commons.io.IOUtils;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class FeatureParser {
 
+    private static final Pattern LANGUAGE_HEADER = Pattern.compile("#\\s*language\\s*:\\s*(\\S+)");
 
-    public synchronized Feature parseFeatureFile(final File f) {
+    /**
+     * parses given feature file, decoded as UTF-8.
+     *
+     * @param f feature file
+     * @return parsed feature with its absolute path set as file name
+     * @throws FeatureParserException if the file can not be read or parsed
+     */
+    public Feature parseFeatureFile(final File f) {
+        try (final BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+            return parseFeature(reader, f.getAbsolutePath());
+        } catch (final IOException e) {
+            throw new FeatureParserException("Unable to read file '" + f.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * parses a feature line by line from given reader, so only the current line is held in memory besides the parsed
+     * structs. Line endings are normalized while reading, \r\n, \r and \n are all accepted. The parser keeps no state
+     * between calls, so one instance may parse several features concurrently.
+     *
+     * @param in       reader to read the feature from, not closed by this method
+     * @param fileName file name to set on the feature and to report in errors
+     * @return parsed feature
+     * @throws FeatureParserException if reading or parsing fails
+     */
+    public Feature parseFeature(final Reader in, final String fileName) {
+        final BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        return parseLines(reader.lines().iterator(), fileName);
+    }
+
+    /**
+     * parses a feature from its already decoded content, e.g. a memory mapped file, without copying the content.
+     * Line endings are handled as in {@link #parseFeature(Reader, String)}.
+     *
+     * @param content  content of the feature file
+     * @param fileName file name to set on the feature and to report in errors
+     * @return parsed feature
+     * @throws FeatureParserException if parsing fails
+     */
+    public Feature parseFeature(final CharSequence content, final String fileName) {
+        return parseLines(new LineIterator(content), fileName);
+    }
+
+    private Feature parseLines(final Iterator<String> lines, final String fileName) {
         final AtomicReference<Feature> feature = new AtomicReference<>();
         final AtomicReference<Scenario> child = new AtomicReference<>();
         final StringBuilder description = new StringBuilder();
         final List<Tag> tags = new ArrayList<>();
         Step step = null;
+        String language = Step.DEFAULT_LANGUAGE;
 
         int linectr = 0;
         String excLine = "";
 
         try {
             ParseMode mode = ParseMode.PRESTRUCT;
-            String content = IOUtils.toString(f.toURI(), StandardCharsets.UTF_8);
-            content = content.replace("\r\n", "\n").replace("\r", "\n");
             boolean docString = false;
-            final String[] lines = content.split("\n");
-            for (String line : lines) {
+            while (lines.hasNext()) {
+                String line = lines.next();
                 excLine = line;
                 linectr++;
                 line = line.trim();
@@ -50,41 +102,46 @@ public class FeatureParser {
                     }
                     step.getLines().add(excLine);
                 } else if (line.startsWith("#") || line.isBlank() || parseTagsFromLine(line, tags)) {
-                    // skip comments
+                    // skip comments, but pick up the language header in front of the feature
+                    final Matcher header = LANGUAGE_HEADER.matcher(line);
+                    if (mode == ParseMode.PRESTRUCT && feature.get() == null && header.matches()) {
+                        language = header.group(1);
+                    }
                 } else if (parseGherkinStructFromLine(line, tags, feature, child)) {
                     mode = ParseMode.DESCRIPTION;
                 } else {
                     final AtomicReference<ParseMode> moderef = new AtomicReference<>(mode);
-                    step = getStep(child, description, step, line, excLine, moderef);
+                    step = getStep(child, description, step, line, excLine, language, moderef);
                     mode = moderef.get();
                 }
             }
 
-            feature.get().setFileName(f.getAbsolutePath());
+            feature.get().setFileName(fileName);
             return feature.get();
         } catch (final Exception e) {
             throw new FeatureParserException(
-                String.format("Error in line %d '%s' of file '%s'", linectr, excLine, f.getAbsolutePath()), e);
+                String.format("Error in line %d '%s' of file '%s'", linectr, excLine, fileName), e);
         }
     }
 
     private Step getStep(final AtomicReference<Scenario> child, final StringBuilder description,
-        Step step, final String line, final String origLine, final AtomicReference<ParseMode> moderef) {
-        final String keyword = Step.getKeyword(line);
+        Step step, final String line, final String origLine, final String language,
+        final AtomicReference<ParseMode> moderef) {
+        final String keyword = Step.getKeyword(line, language);
         if (moderef.get() == ParseMode.DESCRIPTION) {
-            if (!Step.KEYWORDS.contains(keyword)) {
+            if (!Step.isKeyword(keyword, language)) {
                 if (!line.equals("```")) {
                     description.append(line).append("\n");
                 }
             } else {
                 child.get().setDescription(description.toString());
                 description.setLength(0);
-                step = Step.fromLine(line);
+                step = Step.fromLine(line, language);
                 moderef.set(addStepToScenario(child.get(), step));
             }
         } else if (moderef.get() == ParseMode.STEPS || moderef.get() == ParseMode.EXAMPLES) {
-            if (Step.KEYWORDS.contains(keyword)) {
-                step = Step.fromLine(line);
+            if (Step.isKeyword(keyword, language)) {
+                step = Step.fromLine(line, language);
                 moderef.set(addStepToScenario(child.get(), step));
             } else {
                 if (line.equals("\"\"\"") || line.equals("'''")) {
@@ -125,20 +182,18 @@ public class FeatureParser {
     }
 
 
-    @SneakyThrows
     private boolean parseGherkinStructFromLine(final String line, final List<Tag> tags,
         final AtomicReference<Feature> feature, final AtomicReference<Scenario> child) {
         final int colon = line.indexOf(':');
         if (colon != -1) {
             final String structName = line.substring(0, colon).replace(" ", "").replace("\t", "");
-            if (!GherkinStruct.STRUCT_NAMES.contains(structName)) {
+            final Supplier<GherkinStruct> factory = GherkinStruct.STRUCT_FACTORIES.get(structName);
+            if (factory == null) {
                 return false;
             }
-            final GherkinStruct gs = (GherkinStruct) Class.forName("de.gematik.gherkin.model." + structName)
-                .getConstructor()
-                .newInstance();
+            final GherkinStruct gs = factory.get();
             gs.setName(line.substring(colon + 1).trim());
-            gs.getTags().addAll(tags);
+            gs.addTags(tags);
             tags.clear();
 
             Optional.of(gs)
@@ -166,4 +221,40 @@ public class FeatureParser {
         }
         return false;
     }
+
+    /**
+     * iterates the lines of a char sequence, splitting at \r\n, \r and \n like {@link BufferedReader#readLine()}.
+     */
+    private static class LineIterator implements Iterator<String> {
+
+        private final CharSequence content;
+        private int pos;
+
+        LineIterator(final CharSequence content) {
+            this.content = content;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < content.length();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final int len = content.length();
+            int end = pos;
+            while (end < len && content.charAt(end) != '\n' && content.charAt(end) != '\r') {
+                end++;
+            }
+            final String line = content.subSequence(pos, end).toString();
+            pos = end + 1;
+            if (end < len && content.charAt(end) == '\r' && pos < len && content.charAt(pos) == '\n') {
+                pos++;
+            }
+            return line;
+        }
+    }
 }
@@ -1,23 +1,102 @@
 package de.gematik.gherkin.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
 public class GherkinStruct {
 
     public static final List<String> STRUCT_NAMES = List.of("Feature", "Background", "Scenario", "ScenarioOutline");
 
+    /**
+     * factory per keyword (blanks removed) for all {@link #STRUCT_NAMES}, their English synonyms and German keywords.
+     */
+    public static final Map<String, Supplier<GherkinStruct>> STRUCT_FACTORIES = createStructFactories();
+
     private String name;
     private String description = "";
     private List<Tag> tags = new ArrayList<>();
+    /**
+     * tags of this struct by name in the order they were added, kept in sync with the tag list.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<String, List<Tag>> tagIndex = new HashMap<>();
+
+    private static Map<String, Supplier<GherkinStruct>> createStructFactories() {
+        final Map<String, Supplier<GherkinStruct>> factories = new HashMap<>();
+        List.of("Feature", "Funktionalität", "Funktion")
+            .forEach(keyword -> factories.put(keyword, Feature::new));
+        List.of("Background", "Grundlage", "Hintergrund", "Voraussetzungen", "Vorbedingungen")
+            .forEach(keyword -> factories.put(keyword, Background::new));
+        List.of("Scenario", "Example", "Szenario", "Beispiel")
+            .forEach(keyword -> factories.put(keyword, Scenario::new));
+        List.of("ScenarioOutline", "ScenarioTemplate", "Szenariogrundriss", "Szenarien")
+            .forEach(keyword -> factories.put(keyword, ScenarioOutline::new));
+        return Map.copyOf(factories);
+    }
+
+    /**
+     * @return unmodifiable list of the tags of this struct, use {@link #addTags(Collection)} to add tags
+     */
+    public List<Tag> getTags() {
+        return Collections.unmodifiableList(tags);
+    }
+
+    public void setTags(final List<Tag> tags) {
+        this.tags = new ArrayList<>();
+        tagIndex = new HashMap<>();
+        addTags(tags);
+    }
 
+    /**
+     * adds given tags to the tag list and the tag index.
+     *
+     * @param newTags tags to add
+     */
+    public void addTags(final Collection<Tag> newTags) {
+        for (final Tag tag : newTags) {
+            tags.add(tag);
+            tagIndex.computeIfAbsent(tag.getName(), k -> new ArrayList<>(1)).add(tag);
+        }
+    }
 
+    /**
+     * @param tagName name of the tag including the leading @
+     * @return first tag of this struct with given name or null if there is none
+     */
     protected Tag getTag(final String tagName) {
-        return tags.stream()
-            .filter(tag -> tag.getName().equals(tagName))
-            .findFirst()
-            .orElse(null);
+        final List<Tag> named = tagIndex.get(tagName);
+        return named == null ? null : named.get(0);
+    }
+
+    public boolean hasTag(final String tagName) {
+        return getTag(tagName) != null;
+    }
+
+    /**
+     * @param tagName name of the tag including the leading @, e.g. @Afo
+     * @return parameters of all tags of this struct with given name in the order of the tags, empty if there is none
+     */
+    public List<String> getTagParameters(final String tagName) {
+        final List<Tag> named = tagIndex.get(tagName);
+        if (named == null) {
+            return List.of();
+        }
+        return named.stream().map(Tag::getParameter).collect(Collectors.toList());
     }
 }
@@ -1,76 +1,101 @@
 package de.gematik.gherkin.model;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class Scenario extends GherkinStruct {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private Feature feature;
     private List<Step> steps = new ArrayList<>();
 
+    /**
+     * @param tagName name of the tag including the leading @
+     * @return first tag of this scenario with given name, or of its feature if the scenario has none
+     */
     @Override
     public Tag getTag(final String tagName) {
         final Tag tag = super.getTag(tagName);
-        if (tag == null) {
+        if (tag == null && feature != null) {
             return feature.getTag(tagName);
         } else {
             return tag;
         }
     }
 
-    public boolean hasTag(final String tagName) {
-        return getTag(tagName) != null;
-    }
-
     @Override
     public String toString() {
         return super.toString() + " , Feature=" + feature.getName();
     }
 
+    /**
+     * @return Polarion test case work item of this scenario, see {@link #writePolarionJSON(JsonGenerator)}
+     */
     public JSONObject toPolarionJSON() {
-        final JSONObject json = new JSONObject();
+        final StringWriter sw = new StringWriter();
+        try (final JsonGenerator gen = JSON_FACTORY.createGenerator(sw)) {
+            writePolarionJSON(gen);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new JSONObject(sw.toString());
+    }
 
+    /**
+     * writes this scenario as Polarion test case work item, so that large exports can be streamed without building
+     * the JSON tree.
+     *
+     * @param gen generator to write the JSON object to
+     * @throws IOException if writing fails
+     */
+    public void writePolarionJSON(final JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        writePolarionFields(gen);
+        gen.writeEndObject();
+    }
+
+    protected void writePolarionFields(final JsonGenerator gen) throws IOException {
         if (hasTag("@TCID")) {
-            json.put(JSON.INTERNE_ID, getTag("@TCID").getParameter());
+            gen.writeStringField(JSON.INTERNE_ID, getTag("@TCID").getParameter());
         }
         if (hasTag("@Ready")) {
-            json.put(JSON.STATUS, "Implementiert");
+            gen.writeStringField(JSON.STATUS, "Implementiert");
         } else {
-            json.put(JSON.STATUS, "In Bearbeitung");
-        }
-        if (hasTag("@Negative")) {
-            json.put(JSON.NEGATIVE_TF, true);
-        } else {
-            json.put(JSON.NEGATIVE_TF, false);
+            gen.writeStringField(JSON.STATUS, "In Bearbeitung");
         }
+        gen.writeBooleanField(JSON.NEGATIVE_TF, hasTag("@Negative"));
         if (hasTag("@PRIO")) {
-            json.put(JSON.PRIO, Integer.parseInt(getTag("@PRIO").getParameter()));
+            gen.writeNumberField(JSON.PRIO, Integer.parseInt(getTag("@PRIO").getParameter()));
         }
         if (hasTag("@Product")) {
-            json.put(JSON.PRODUKT_TYP, feature.getTag("@Product").getParameter());
+            gen.writeStringField(JSON.PRODUKT_TYP, feature.getTag("@Product").getParameter());
         }
         if (hasTag("@manual")) {
-            json.put(JSON.MODUS, "Manuell");
+            gen.writeStringField(JSON.MODUS, "Manuell");
         } else {
-            json.put(JSON.MODUS, "Automatisch");
+            gen.writeStringField(JSON.MODUS, "Automatisch");
+        }
+        gen.writeStringField(JSON.TESTSTUFE, "Produkttest");
+        gen.writeStringField(JSON.TESTART, "Funktionstest");
+        gen.writeArrayFieldStart(JSON.AFOLINKS);
+        for (final String afo : getTagParameters("@Afo")) {
+            gen.writeString(afo);
         }
-        json.put(JSON.TESTSTUFE, "Produkttest");
-        json.put(JSON.TESTART, "Funktionstest");
-        final JSONArray afos = new JSONArray(getTags().stream()
-            .filter(tag -> tag.getName().equals("@Afo"))
-            .map(Tag::getParameter)
-            .collect(Collectors.toList()));
-        json.put(JSON.AFOLINKS, afos);
-        json.put(JSON.TITEL, getName());
-        json.put(JSON.DESCRIPTION, getDescription().replace("\n", "</br>"));
-        json.put(JSON.VORBEDINGUNG, "");
+        gen.writeEndArray();
+        gen.writeStringField(JSON.TITEL, getName());
+        gen.writeStringField(JSON.DESCRIPTION, getDescription().replace("\n", "</br>"));
+        gen.writeStringField(JSON.VORBEDINGUNG, "");
         final StringBuilder sb = new StringBuilder();
         int stepIdx = 0;
         for (final Step step : steps) {
@@ -88,8 +113,7 @@ public class Scenario extends GherkinStruct {
             }
             addStep(step, stepIdx + ": ", sb);
         }
-        json.put(JSON.TESTABLAUF, sb.toString());
-        return json;
+        gen.writeStringField(JSON.TESTABLAUF, sb.toString());
     }
 
     protected void addStep(final Step step, final String header, final StringBuilder sb) {
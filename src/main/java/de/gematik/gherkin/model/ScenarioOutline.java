@@ -1,8 +1,9 @@
 package de.gematik.gherkin.model;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-import org.json.JSONObject;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
@@ -11,11 +12,12 @@ public class ScenarioOutline extends Scenario {
     private Step examples;
 
     @Override
-    public JSONObject toPolarionJSON() {
-        final JSONObject json = super.toPolarionJSON();
+    protected void writePolarionFields(final JsonGenerator gen) throws IOException {
+        super.writePolarionFields(gen);
         final StringBuilder sb = new StringBuilder();
-        addStep(examples, "", sb);
-        json.put(JSON.DATAVARIANTS, sb.toString());
-        return json;
+        if (examples != null) {
+            addStep(examples, "", sb);
+        }
+        gen.writeStringField(JSON.DATAVARIANTS, sb.toString());
     }
 }
@@ -2,7 +2,9 @@ package de.gematik.gherkin.model;
 
 import de.gematik.gherkin.FeatureParserException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
@@ -13,23 +15,88 @@ public class Step {
 
     public static final List<String> KEYWORDS = List.of("When", "Given", "Then", "And", "But", "Examples");
 
+    /**
+     * language of feature files without "# language:" header.
+     */
+    public static final String DEFAULT_LANGUAGE = "en";
+
+    /**
+     * step keywords per language of the "# language:" header mapped to their english keyword from {@link #KEYWORDS}.
+     * The english keywords are accepted in all languages, unknown languages fall back to english.
+     */
+    private static final Map<String, Map<String, String>> LOCALIZED_KEYWORDS = createLocalizedKeywords();
+
+    /**
+     * localized keywords consisting of more than one word, longest first so that "Gegeben seien" wins over "Gegeben
+     * sei".
+     */
+    private static final List<String> MULTI_WORD_KEYWORDS = List.of("Gegeben seien", "Gegeben sei");
+
+    /**
+     * english keyword from {@link #KEYWORDS}, the keyword as written in the feature file is kept in the first line.
+     */
     private final String keyword;
     private final List<String> lines;
 
+    private static Map<String, Map<String, String>> createLocalizedKeywords() {
+        final Map<String, String> english = new HashMap<>();
+        KEYWORDS.forEach(keyword -> english.put(keyword, keyword));
+        english.put("Scenarios", "Examples");
+
+        final Map<String, String> german = new HashMap<>(english);
+        List.of("Angenommen", "Gegeben sei", "Gegeben seien")
+            .forEach(keyword -> german.put(keyword, "Given"));
+        german.put("Wenn", "When");
+        german.put("Dann", "Then");
+        german.put("Und", "And");
+        german.put("Aber", "But");
+        german.put("Beispiele", "Examples");
+
+        return Map.of("en", Map.copyOf(english), "de", Map.copyOf(german));
+    }
+
+    private static Map<String, String> getKeywords(final String language) {
+        return LOCALIZED_KEYWORDS.getOrDefault(language, LOCALIZED_KEYWORDS.get(DEFAULT_LANGUAGE));
+    }
+
+    /**
+     * @param keyword  keyword as returned by {@link #getKeyword(String, String)}
+     * @param language language of the feature file
+     * @return true if the keyword starts a step in given language
+     */
+    public static boolean isKeyword(final String keyword, final String language) {
+        return getKeywords(language).containsKey(keyword);
+    }
+
     public static Step fromLine(final String line) {
-        final String kw = getKeyword(line.trim());
-        return KEYWORDS.stream()
-            .filter(keyword -> keyword.equals(kw))
-            .map(keyword -> new Step(keyword, new ArrayList<>(List.of(line))))
-            .findFirst()
-            .orElseThrow(() -> new FeatureParserException("Unknown Step '" + kw + "'"));
+        return fromLine(line, DEFAULT_LANGUAGE);
+    }
+
+    public static Step fromLine(final String line, final String language) {
+        final String kw = getKeyword(line.trim(), language);
+        final String keyword = getKeywords(language).get(kw);
+        if (keyword == null) {
+            throw new FeatureParserException("Unknown Step '" + kw + "'");
+        }
+        return new Step(keyword, new ArrayList<>(List.of(line)));
     }
 
     public static String getKeyword(final String line) {
-        if (line.startsWith("Example")) {
-            final int colon = line.indexOf(":");
-            if (colon != -1) {
-                return line.substring(0, colon).replace(" ", "").replace("\t", "");
+        return getKeyword(line, DEFAULT_LANGUAGE);
+    }
+
+    public static String getKeyword(final String line, final String language) {
+        final Map<String, String> keywords = getKeywords(language);
+        final int colon = line.indexOf(":");
+        if (colon != -1) {
+            final String name = line.substring(0, colon).replace(" ", "").replace("\t", "");
+            if ("Examples".equals(keywords.get(name))) {
+                return name;
+            }
+        }
+        for (final String keyword : MULTI_WORD_KEYWORDS) {
+            if (keywords.containsKey(keyword) && line.startsWith(keyword + " ")) {
+                return keyword;
             }
         }
         return StringUtils.substringBefore(line, " ");
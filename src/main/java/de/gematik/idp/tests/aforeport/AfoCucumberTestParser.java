@@ -19,13 +19,17 @@ package de.gematik.idp.tests.aforeport;
 import de.gematik.gherkin.FeatureParser;
 import de.gematik.gherkin.model.Feature;
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @Getter
@@ -34,56 +38,110 @@ public class AfoCucumberTestParser implements ITestParser {
 
     private static final String AFO_TOKEN = "@Afo";
     private final Map<String, List<Testcase>> parsedTestcasesPerAfo = new HashMap<>();
-    private final Map<String, Testcase> parsedTestcases = new HashMap<>();
-    private final Map<String, Testcase> unreferencedTestcases = new HashMap<>();
+    private final Map<TestKey, Testcase> parsedTestcases = new HashMap<>();
+    private final Map<TestKey, Testcase> unreferencedTestcases = new HashMap<>();
+
+    /**
+     * number of threads used to parse the feature files. A value of 1 parses sequentially on the calling thread, a
+     * value lower than 1 uses all available processors.
+     */
+    private final int threads;
+
+    /**
+     * cache of parsed scenarios per feature file, disabled by default.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private ParseCache<ParsedTestcase> cache = ParseCache.disabled();
+
+    /**
+     * pool the shared strings of parsed test cases are interned in.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private StringPool stringPool = new StringPool();
+
+    /**
+     * glob patterns of files and folders not to parse, see {@link FileTreeWalker}.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private List<String> excludes = FileTreeWalker.DEFAULT_EXCLUDES;
+
+    /**
+     * feature parser shared by all threads, as it is reentrant.
+     */
+    @Getter(AccessLevel.NONE)
+    private final FeatureParser featureParser = new FeatureParser();
+
+    public AfoCucumberTestParser() {
+        this(1);
+    }
+
+    public AfoCucumberTestParser(final int threads) {
+        this.threads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+    }
 
     @Override
     public void parseDirectory(final File rootDir) {
         if (rootDir == null) {
             log.warn("Invalid test source NULL root dir");
-        } else {
-            final File[] files = rootDir.listFiles();
-            if (files == null) {
-                if (log.isWarnEnabled()) {
-                    log.warn(String.format("Invalid test source root dir %s", rootDir.getAbsolutePath()));
-                }
-            } else {
-                Arrays.stream(files)
-                    .filter(f -> f.isFile() && f.getName().endsWith(".feature"))
-                    .forEach(this::inspectFile);
-                Arrays.stream(files)
-                    .filter((File::isDirectory))
-                    .forEach(this::parseDirectory);
+        } else if (!rootDir.isDirectory()) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Invalid test source root dir %s", rootDir.getAbsolutePath()));
             }
+        } else {
+            final Stream<File> files = FileTreeWalker.including("*.feature").excluding(excludes).walk(rootDir);
+            FileTreeWalker.parse(files, this::inspectFile, threads, "feature files",
+                scenarios -> scenarios.forEach(this::addParsedTestcase));
         }
     }
 
-    private void inspectFile(final File f) {
-        final Feature feature = new FeatureParser().parseFeatureFile(f);
-        feature.getScenarios()
-            .forEach(ch -> {
-                    final Testcase tc = new Testcase();
-                    tc.setFeatureName(feature.getName());
-                    tc.setScenarioName(ch.getName());
-                    tc.setClazz(convertToId(feature.getName()));
-                    tc.setMethod(convertToId(ch.getName()));
-                    tc.setPath(feature.getFileName());
-                parsedTestcases.putIfAbsent(tc.getClazz() + ":" + tc.getMethod(), tc);
-                    final AtomicReference<Boolean> ref = new AtomicReference<>(false);
-                    ch.getTags().stream()
-                        .filter(tag -> tag.getName().equals(AFO_TOKEN))
-                        .forEach(afotag -> {
-                            final String afoid = afotag.getParameter();
-                            parsedTestcasesPerAfo.computeIfAbsent(afoid, k -> new ArrayList<>());
-                            parsedTestcasesPerAfo.get(afoid).add(tc);
-                            ref.set(true);
-                        });
-                    if (!ref.get().booleanValue()) {
-                        unreferencedTestcases.putIfAbsent(tc.getClazz() + ":" + tc.getMethod(), tc);
-                    }
-                }
-            );
-        log.info("      Found " + feature.getScenarios().size() + " scenarios in " + f.getAbsolutePath());
+    private List<ParsedTestcase> inspectFile(final File f) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new AfoReporterException("Parsing of feature files interrupted");
+        }
+        final List<ParsedTestcase> scenarios = cache.get(f, this::parseFeatureFile);
+        log.info("      Found " + scenarios.size() + " scenarios in " + f.getAbsolutePath());
+        return scenarios;
+    }
+
+    private List<ParsedTestcase> parseFeatureFile(final File f) {
+        final Feature feature;
+        try (final Reader reader = FileContent.reader(f)) {
+            feature = featureParser.parseFeature(reader, f.getAbsolutePath());
+        } catch (final IOException ioex) {
+            throw new AfoReporterException("Unable to parse " + f.getAbsolutePath(), ioex);
+        }
+        return feature.getScenarios().stream()
+            .map(ch -> {
+                final Testcase tc = new Testcase();
+                tc.setFeatureName(feature.getName());
+                tc.setScenarioName(ch.getName());
+                tc.setClazz(convertToId(feature.getName()));
+                tc.setMethod(convertToId(ch.getName()));
+                tc.setPath(feature.getFileName());
+                return new ParsedTestcase(tc, ch.getTagParameters(AFO_TOKEN));
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * adds the given scenario to the maps of parsed test cases. Must only be called from the thread calling {@link
+     * #parseDirectory(File)}.
+     *
+     * @param scenario scenario found in a feature file
+     */
+    private void addParsedTestcase(final ParsedTestcase scenario) {
+        final Testcase tc = scenario.getTestcase();
+        stringPool.intern(tc);
+        parsedTestcases.putIfAbsent(tc.getKey(), tc);
+        if (scenario.getAfoIds().isEmpty()) {
+            unreferencedTestcases.putIfAbsent(tc.getKey(), tc);
+        } else {
+            scenario.getAfoIds()
+                .forEach(afoid -> parsedTestcasesPerAfo.computeIfAbsent(afoid, k -> new ArrayList<>()).add(tc));
+        }
     }
 
     private String convertToId(String name) {
@@ -95,7 +153,7 @@ public class AfoCucumberTestParser implements ITestParser {
     }
 
     @Override
-    public Map<String, Testcase> getTestcasesWithoutAfo() {
+    public Map<TestKey, Testcase> getTestcasesWithoutAfo() {
         return unreferencedTestcases;
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * Hashed index over the afos read from the requirements file. It is built once per run, so that looking up afos by
+ * id, e.g. to detect afo ids referenced by test cases but missing in the requirements file, is independent of the
+ * number of afos.
+ */
+public class AfoIndex {
+
+    private final Map<String, AfoData> afosById;
+    /**
+     * all afos not marked as deleted, in the order of the requirements file.
+     */
+    @Getter
+    private final List<AfoData> activeAfos;
+
+    /**
+     * @param afos afos to index. If an id is contained multiple times, the first afo with this id is indexed.
+     */
+    public AfoIndex(final List<AfoData> afos) {
+        afosById = new HashMap<>();
+        afos.forEach(afo -> afosById.putIfAbsent(afo.getId(), afo));
+        activeAfos = Collections.unmodifiableList(afos.stream()
+            .filter(afo -> afo.getAfoStatus() != AfoStatus.DELETED)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * @param id afo id
+     * @return true if an afo with given id is contained in the requirements file, regardless of its status
+     */
+    public boolean contains(final String id) {
+        return afosById.containsKey(id);
+    }
+
+    /**
+     * @param id afo id
+     * @return afo with given id or null if not contained
+     */
+    public AfoData get(final String id) {
+        return afosById.get(id);
+    }
+
+    /**
+     * @param afotcs test cases per referenced afo id
+     * @return all referenced afo ids not contained in the index, sorted by id
+     */
+    public List<OrphanedAfo> findOrphans(final Map<String, List<Testcase>> afotcs) {
+        return afotcs.entrySet().stream()
+            .filter(entry -> !contains(entry.getKey()))
+            .map(entry -> new OrphanedAfo(entry.getKey(), entry.getValue().stream()
+                .map(tc -> tc.getKey().toString())
+                .collect(Collectors.toList())))
+            .sorted(Comparator.comparing(OrphanedAfo::getId))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses JUnit XML test result files with a StAX stream reader instead of building a DOM.
+ * <p>
+ * Only the test case currently being read is held in memory, so heap usage is bounded by the size of the largest
+ * single test case and not by the size of the result file. System out/err output on suite level is skipped without
+ * being buffered. The produced test results are the same as the ones of {@link AfoJUnitTestResultParser}, except that
+ * a test case without any failure, error or skipped element is always reported as {@link Result#PASSED}.
+ * <p>
+ * System out/err output of test cases is captured according to the {@link CapturePolicy}. For {@link
+ * CapturePolicy#HEAD} and {@link CapturePolicy#TAIL} at most twice the capture limit is buffered while reading. For
+ * {@link CapturePolicy#LAZY} the output elements are located by their byte range with the {@link OutputLocator}
+ * before the file is parsed.
+ */
+@Slf4j
+public class AfoJUnitStaxTestResultParser implements ITestResultParser {
+
+    /**
+     * result files are only looked for in the result folder itself, not in its sub folders.
+     */
+    private static final FileTreeWalker RESULT_FILES = FileTreeWalker.including("TEST-*.xml").maxDepth(1);
+
+    /**
+     * configured factory per thread, as XMLInputFactory is not guaranteed to be thread safe.
+     */
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY =
+        ThreadLocal.withInitial(AfoJUnitStaxTestResultParser::createInputFactory);
+
+    /**
+     * cache of parsed test results per result file, disabled by default.
+     */
+    @Setter
+    private ParseCache<TestResult> cache = ParseCache.disabled();
+
+    /**
+     * pool the shared strings of parsed test results are interned in.
+     */
+    @Setter
+    private StringPool stringPool = new StringPool();
+
+    /**
+     * how to capture system out/err output of test cases.
+     */
+    @Setter
+    private CapturePolicy capturePolicy = CapturePolicy.FULL;
+    /**
+     * maximum number of characters of system out/err output kept for {@link CapturePolicy#HEAD} and {@link
+     * CapturePolicy#TAIL}.
+     */
+    @Setter
+    private int captureLimit = CapturedOutput.DEFAULT_LIMIT;
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    @Override
+    public List<File> listResultFiles(final File rootDir) {
+        if (rootDir == null) {
+            log.warn("Invalid NULL test result root dir");
+            return List.of();
+        }
+        return RESULT_FILES.walk(rootDir).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TestResult> parseResultFile(final File file) {
+        return stringPool.internAll(cache.get(file, this::parseJunitXMLResult));
+    }
+
+    /**
+     * reads all test cases being direct children of a testsuite element. In case the file is broken, e.g. truncated
+     * by an aborted test run, all test cases read up to the failure are returned.
+     *
+     * @param file JUnit XML result file
+     * @return list of test results in document order
+     */
+    private List<TestResult> parseJunitXMLResult(final File file) {
+        final List<TestResult> results = new ArrayList<>();
+        try (final InputStream is = FileContent.stream(file)) {
+            final List<OutputLocator.Outputs> outputs =
+                capturePolicy == CapturePolicy.LAZY ? OutputLocator.locate(file) : List.of();
+            final XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(is);
+            try {
+                final TestCaseCursor cursor = new TestCaseCursor(reader);
+                while (cursor.next()) {
+                    final int index = results.size();
+                    results.add(parseTestCase(reader, cursor.getSuite(),
+                        index < outputs.size() ? outputs.get(index) : null));
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final Exception e) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Failure while parsing result file %s", file.getAbsolutePath()), e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * decodes the raw content of an output element as read from a result file, resolving character references,
+     * entities and CDATA sections, used to read lazily captured output.
+     *
+     * @param content  bytes between the start and the end tag of the output element
+     * @param encoding character encoding of the result file
+     * @return text content of the output element
+     * @throws XMLStreamException if the content is no well-formed element content
+     */
+    static String readContent(final byte[] content, final String encoding) throws XMLStreamException {
+        final InputStream fragment = new SequenceInputStream(new SequenceInputStream(
+            new ByteArrayInputStream(("<?xml version=\"1.0\" encoding=\"" + encoding + "\"?><content>")
+                .getBytes(StandardCharsets.US_ASCII)),
+            new ByteArrayInputStream(content)),
+            new ByteArrayInputStream("</content>".getBytes(StandardCharsets.US_ASCII)));
+        final XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(fragment);
+        try {
+            reader.nextTag();
+            return readText(reader, CapturePolicy.FULL, 0).toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * reads the test case the reader is positioned on up to and including its end element.
+     */
+    private TestResult parseTestCase(final XMLStreamReader reader, final String suite,
+        final OutputLocator.Outputs located) throws XMLStreamException {
+        final TestResult tr = new TestResult();
+        tr.setClazz(getAttribute(reader, "classname"));
+        tr.setMethod(getAttribute(reader, "name"));
+        tr.suite = suite;
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            boolean parseAttr = false;
+            switch (reader.getLocalName()) {
+                case "failure":
+                    tr.status = Result.FAILED;
+                    parseAttr = true;
+                    break;
+                case "error":
+                    tr.status = Result.ERROR;
+                    parseAttr = true;
+                    break;
+                case "skipped":
+                    tr.status = Result.SKIPPED;
+                    parseAttr = true;
+                    break;
+                case "system-out":
+                    tr.errsysout = captureOutput(reader, located == null ? null : located.getSystemOut());
+                    break;
+                case "system-err":
+                    tr.errsyserr = captureOutput(reader, located == null ? null : located.getSystemErr());
+                    break;
+                default:
+                    tr.status = Result.UNKNOWN;
+                    readText(reader, CapturePolicy.NONE, 0);
+                    break;
+            }
+            if (parseAttr) {
+                tr.errmessage = getAttribute(reader, "message");
+                tr.errtype = getAttribute(reader, "type");
+                tr.errdetails = readText(reader, CapturePolicy.FULL, 0).toString();
+            }
+        }
+        if (tr.status == null) {
+            tr.status = Result.PASSED;
+        }
+        return tr;
+    }
+
+    /**
+     * @param located output element as located in the result file, null if not located
+     */
+    private CapturedOutput captureOutput(final XMLStreamReader reader, final CapturedOutput located)
+        throws XMLStreamException {
+        if (capturePolicy == CapturePolicy.LAZY) {
+            if (located != null) {
+                readText(reader, CapturePolicy.NONE, 0);
+                return located;
+            }
+            // not located, e.g. for result files not encoded ASCII compatible, so keep the output in memory
+            return CapturedOutput.of(readText(reader, CapturePolicy.FULL, 0).toString());
+        }
+        return CapturedOutput.capture(readText(reader, capturePolicy, captureLimit), capturePolicy, captureLimit);
+    }
+
+    /**
+     * @return value of the attribute or an empty string if not present, as is the case with DOM elements
+     */
+    private static String getAttribute(final XMLStreamReader reader, final String name) {
+        final String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * reads the text content of the element the reader is positioned on, including text of nested elements, and leaves
+     * the reader on its end element. Text is only buffered as needed by the given capture policy, for {@link
+     * CapturePolicy#HEAD} the first limit + 1 characters, for {@link CapturePolicy#TAIL} at least the last limit + 1
+     * characters, so that truncation can be detected.
+     *
+     * @return buffered text, null for {@link CapturePolicy#NONE} and {@link CapturePolicy#LAZY}
+     */
+    private static CharSequence readText(final XMLStreamReader reader, final CapturePolicy policy, final int limit)
+        throws XMLStreamException {
+        final boolean buffer = policy != CapturePolicy.NONE && policy != CapturePolicy.LAZY;
+        final StringBuilder text = buffer ? new StringBuilder() : null;
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (buffer) {
+                        appendText(reader, text, policy, limit);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return text;
+    }
+
+    private static void appendText(final XMLStreamReader reader, final StringBuilder text,
+        final CapturePolicy policy, final int limit) {
+        int length = reader.getTextLength();
+        if (policy == CapturePolicy.HEAD) {
+            length = Math.min(length, limit + 1 - text.length());
+            if (length <= 0) {
+                return;
+            }
+        }
+        text.append(reader.getTextCharacters(), reader.getTextStart(), length);
+        if (policy == CapturePolicy.TAIL && text.length() > 2 * (limit + 1)) {
+            text.delete(0, text.length() - limit - 1);
+        }
+    }
+
+    /**
+     * Walks the stream reader from one testcase element to the next, only considering testcase elements being direct
+     * children of a testsuite element. The caller has to consume each testcase element up to its end element.
+     */
+    private static class TestCaseCursor {
+
+        private final XMLStreamReader reader;
+        private final Deque<String> elements = new ArrayDeque<>();
+        private final Deque<String> suites = new ArrayDeque<>();
+
+        TestCaseCursor(final XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return true if the reader is positioned on the start element of the next testcase, false at the end of
+         * the document
+         */
+        boolean next() throws XMLStreamException {
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final String name = reader.getLocalName();
+                    if (name.equals("testcase") && "testsuite".equals(elements.peek())) {
+                        return true;
+                    }
+                    if (name.equals("testsuite")) {
+                        suites.push(getAttribute(reader, "name"));
+                    }
+                    elements.push(name);
+                } else if (event == XMLStreamConstants.END_ELEMENT && elements.pop().equals("testsuite")) {
+                    suites.pop();
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return name of the test suite containing the current testcase
+         */
+        String getSuite() {
+            return suites.peek();
+        }
+    }
+}
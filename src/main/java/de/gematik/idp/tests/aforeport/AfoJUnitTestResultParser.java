@@ -17,11 +17,13 @@
 package de.gematik.idp.tests.aforeport;
 
 import java.io.File;
-import java.util.Arrays;
-import java.util.Map;
-import java.util.Objects;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilderFactory;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -32,56 +34,81 @@ import org.w3c.dom.Text;
 @Slf4j
 public class AfoJUnitTestResultParser implements ITestResultParser {
 
+    /**
+     * result files are only looked for in the result folder itself, not in its sub folders.
+     */
+    private static final FileTreeWalker RESULT_FILES = FileTreeWalker.including("TEST-*.xml").maxDepth(1);
+
+    /**
+     * cache of parsed test results per result file, disabled by default.
+     */
+    @Setter
+    private ParseCache<TestResult> cache = ParseCache.disabled();
+
+    /**
+     * pool the shared strings of parsed test results are interned in.
+     */
+    @Setter
+    private StringPool stringPool = new StringPool();
+
+    /**
+     * how to capture system out/err output of test cases. As the DOM holds the complete file anyway, this only limits
+     * the memory retained after parsing.
+     */
+    @Setter
+    private CapturePolicy capturePolicy = CapturePolicy.FULL;
+    /**
+     * maximum number of characters of system out/err output kept for {@link CapturePolicy#HEAD} and {@link
+     * CapturePolicy#TAIL}.
+     */
+    @Setter
+    private int captureLimit = CapturedOutput.DEFAULT_LIMIT;
+
     @Override
-    public void parseDirectoryForResults(final Map<String, TestResult> results, final File rootDir) {
+    public List<File> listResultFiles(final File rootDir) {
         if (rootDir == null) {
             log.warn("Invalid NULL test result root dir");
-        } else {
-            if (rootDir.listFiles() == null) {
-                if (log.isWarnEnabled()) {
-                    log.warn(String.format("Invalid test result root dir %s", rootDir.getAbsolutePath()));
-                }
-            } else {
-                Arrays.asList(Objects.requireNonNull(rootDir.listFiles())).forEach(f -> {
-                    if (f.getName().startsWith("TEST-") && f.getName().endsWith(".xml")) {
-                        parseJunitXMLResult(f, results);
-                    }
-                });
-            }
+            return List.of();
         }
+        return RESULT_FILES.walk(rootDir).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TestResult> parseResultFile(final File file) {
+        return stringPool.internAll(cache.get(file, this::parseJunitXMLResult));
     }
 
-    private void parseJunitXMLResult(final File file, final Map<String, TestResult> results) {
-        try {
+    private List<TestResult> parseJunitXMLResult(final File file) {
+        final List<TestResult> results = new ArrayList<>();
+        try (final InputStream in = FileContent.stream(file)) {
             final DocumentBuilderFactory df = DocumentBuilderFactory.newInstance();
             df.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
             df.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-            final Document doc = df.newDocumentBuilder().parse(file);
+            final Document doc = df.newDocumentBuilder().parse(in, file.toURI().toString());
+            final List<OutputLocator.Outputs> outputs =
+                capturePolicy == CapturePolicy.LAZY ? OutputLocator.locate(file) : List.of();
 
-            final NodeList suites = doc.getElementsByTagName("testsuite");
-            for (int i = 0; i < suites.getLength(); i++) {
-                parseTestSuite((Element) suites.item(i), results);
+            // walk test cases in document order, so that their index matches the one of the output locator
+            final NodeList tcs = doc.getElementsByTagName("testcase");
+            for (int i = 0; i < tcs.getLength(); i++) {
+                final Node suite = tcs.item(i).getParentNode();
+                if (suite.getNodeName().equals("testsuite")) {
+                    final int index = results.size();
+                    final TestResult tr = parseTestCase((Element) tcs.item(i),
+                        index < outputs.size() ? outputs.get(index) : null);
+                    tr.suite = ((Element) suite).getAttribute("name");
+                    results.add(tr);
+                }
             }
         } catch (final Exception e) {
             if (log.isWarnEnabled()) {
                 log.warn(String.format("Failure while parsing result file %s", file.getAbsolutePath()), e);
             }
         }
+        return results;
     }
 
-    private void parseTestSuite(final Element suite, final Map<String, TestResult> results) {
-        final NodeList tcs = suite.getChildNodes();
-        for (int i = 0; i < tcs.getLength(); i++) {
-            final Node tc = tcs.item(i);
-            if (tc.getNodeName().equals("testcase")) {
-                final TestResult tr = parseTestCase((Element) tc);
-                tr.suite = suite.getAttribute("name");
-                results.put(tr.getClazz() + ":" + tr.getMethod(), tr);
-            }
-        }
-    }
-
-    private TestResult parseTestCase(final Element tc) {
+    private TestResult parseTestCase(final Element tc, final OutputLocator.Outputs located) {
         final TestResult tr = new TestResult();
         tr.setClazz(tc.getAttribute("classname"));
         tr.setMethod(tc.getAttribute("name"));
@@ -109,10 +136,10 @@ public class AfoJUnitTestResultParser implements ITestResultParser {
                         parseAttr = true;
                         break;
                     case "system-out":
-                        tr.errsysout = detail.getTextContent();
+                        tr.errsysout = captureOutput(detail, located == null ? null : located.getSystemOut());
                         break;
                     case "system-err":
-                        tr.errsyserr = detail.getTextContent();
+                        tr.errsyserr = captureOutput(detail, located == null ? null : located.getSystemErr());
                         break;
                     default:
                         tr.status = Result.UNKNOWN;
@@ -127,4 +154,12 @@ public class AfoJUnitTestResultParser implements ITestResultParser {
         }
         return tr;
     }
+
+    private CapturedOutput captureOutput(final Element detail, final CapturedOutput located) {
+        if (capturePolicy == CapturePolicy.LAZY) {
+            // output not located, e.g. in result files not encoded ASCII compatible, is kept in memory
+            return located != null ? located : CapturedOutput.of(detail.getTextContent());
+        }
+        return CapturedOutput.capture(detail.getTextContent(), capturePolicy, captureLimit);
+    }
 }
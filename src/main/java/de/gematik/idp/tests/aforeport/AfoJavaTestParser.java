@@ -26,60 +26,179 @@ import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @Getter
 @Slf4j
 public class AfoJavaTestParser implements ITestParser {
 
+    /**
+     * simple name of the annotation marking test methods. Files not containing this annotation are not parsed.
+     */
+    static final String TEST_ANNOTATION = "Test";
+    static final String AFO_ANNOTATION = "Afo";
+
     private final Map<String, List<Testcase>> parsedTestcasesPerAfo = new HashMap<>();
-    private final Map<String, Testcase> parsedTestcases = new HashMap<>();
-    private final Map<String, Testcase> unreferencedTestcases = new HashMap<>();
+    private final Map<TestKey, Testcase> parsedTestcases = new HashMap<>();
+    private final Map<TestKey, Testcase> unreferencedTestcases = new HashMap<>();
+
+    /**
+     * number of threads used to parse the java files. A value of 1 parses sequentially on the calling thread, a
+     * value lower than 1 uses all available processors.
+     */
+    private final int threads;
+
+    /**
+     * cache of parsed test cases per java file, disabled by default.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private ParseCache<ParsedTestcase> cache = ParseCache.disabled();
+
+    /**
+     * pool the shared strings of parsed test cases are interned in.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private StringPool stringPool = new StringPool();
+
+    /**
+     * glob patterns of files and folders not to parse, see {@link FileTreeWalker}.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private List<String> excludes = FileTreeWalker.DEFAULT_EXCLUDES;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger scannedFiles = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger parsedFiles = new AtomicInteger();
+
+    public AfoJavaTestParser() {
+        this(1);
+    }
+
+    public AfoJavaTestParser(final int threads) {
+        this.threads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+    }
 
     @Override
     public void parseDirectory(final File rootDir) {
         if (rootDir == null) {
             log.warn("Invalid test source NULL root dir");
+        } else if (!rootDir.isDirectory()) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Invalid test source root dir %s", rootDir.getAbsolutePath()));
+            }
         } else {
-            final File[] files = rootDir.listFiles();
-            if (files == null) {
-                if (log.isWarnEnabled()) {
-                    log.warn(String.format("Invalid test source root dir %s", rootDir.getAbsolutePath()));
-                }
-            } else {
-                Arrays.asList(files).forEach(f -> {
-                    if (f.isDirectory()) {
-                        parseDirectory(f);
-                    } else if (f.getName().endsWith(".java")) {
-                        inspectFile(f);
-                    }
-                });
+            final Stream<File> files = FileTreeWalker.including("*.java").excluding(excludes).walk(rootDir);
+            FileTreeWalker.parse(files, this::inspectFile, threads, "test source code",
+                methods -> methods.forEach(this::addParsedTestcase));
+            if (log.isInfoEnabled()) {
+                log.info(String.format("      Parsed %d of %d java files containing @%s annotations",
+                    parsedFiles.get(), scannedFiles.get(), TEST_ANNOTATION));
             }
         }
     }
 
-    private void inspectFile(final File f) {
-        try (final FileInputStream in = new FileInputStream(f)) {
-            final CompilationUnit cu = StaticJavaParser.parse(in);
-            new MethodVisitor(this).visit(cu, null);
+    private List<ParsedTestcase> inspectFile(final File f) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new AfoReporterException("Parsing of test source code interrupted");
+        }
+        return cache.get(f, this::parseFile);
+    }
 
+    private List<ParsedTestcase> parseFile(final File f) {
+        try {
+            final ByteBuffer content = FileContent.bytes(f);
+            scannedFiles.incrementAndGet();
+            if (!containsAnnotation(content, TEST_ANNOTATION)) {
+                return List.of();
+            }
+            parsedFiles.incrementAndGet();
+            try (final Reader reader = FileContent.reader(content)) {
+                final CompilationUnit cu = StaticJavaParser.parse(reader);
+                final List<ParsedTestcase> methods = new ArrayList<>();
+                new MethodVisitor(methods).visit(cu, null);
+                return methods;
+            }
         } catch (final IOException ioex) {
             throw new AfoReporterException("Unable to parse " + f.getAbsolutePath(), ioex);
         }
     }
 
+    /**
+     * cheap lexical check whether the given java source contains an annotation with the given simple name. Allows to
+     * skip building the AST for helper classes, fixtures and generated code. As comments and string literals are not
+     * detected, the check may report false positives but never false negatives.
+     *
+     * @param content raw bytes of the java source file, from its position to its limit
+     * @param name    simple name of the annotation (ASCII only)
+     * @return true if the token @name (optionally with whitespace after the @) is present
+     */
+    static boolean containsAnnotation(final ByteBuffer content, final String name) {
+        final int len = name.length();
+        final int end = content.limit();
+        for (int i = content.position(); i < end; i++) {
+            if (content.get(i) != '@') {
+                continue;
+            }
+            int start = i + 1;
+            while (start < end && Character.isWhitespace(content.get(start))) {
+                start++;
+            }
+            if (start + len > end) {
+                return false;
+            }
+            boolean match = true;
+            for (int j = 0; j < len && match; j++) {
+                match = content.get(start + j) == name.charAt(j);
+            }
+            if (match && (start + len == end || !isIdentifierPart(content.get(start + len)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIdentifierPart(final byte b) {
+        // bytes of multi byte UTF-8 sequences are negative and always part of an identifier in this context
+        return b < 0 || Character.isJavaIdentifierPart(b);
+    }
+
+    /**
+     * adds the given test method to the maps of parsed test cases. Must only be called from the thread calling {@link
+     * #parseDirectory(File)}.
+     *
+     * @param method test method found in a java file
+     */
+    private void addParsedTestcase(final ParsedTestcase method) {
+        final Testcase tc = method.getTestcase();
+        stringPool.intern(tc);
+        parsedTestcases.putIfAbsent(tc.getKey(), tc);
+        if (method.getAfoIds().isEmpty()) {
+            unreferencedTestcases.putIfAbsent(tc.getKey(), tc);
+        } else {
+            method.getAfoIds().forEach(id -> parsedTestcasesPerAfo.computeIfAbsent(id, k -> new ArrayList<>()).add(tc));
+        }
+    }
+
     @Override
-    public Map<String, Testcase> getTestcasesWithoutAfo() {
+    public Map<TestKey, Testcase> getTestcasesWithoutAfo() {
         return unreferencedTestcases;
     }
 
@@ -88,10 +207,10 @@ public class AfoJavaTestParser implements ITestParser {
      */
     private static class MethodVisitor extends VoidVisitorAdapter<Object> {
 
-        private final AfoJavaTestParser parser;
+        private final List<ParsedTestcase> methods;
 
-        MethodVisitor(final AfoJavaTestParser parser) {
-            this.parser = parser;
+        MethodVisitor(final List<ParsedTestcase> methods) {
+            this.methods = methods;
         }
 
         private static String getFullyQualifiedName(final ClassOrInterfaceDeclaration testClass) {
@@ -141,7 +260,7 @@ public class AfoJavaTestParser implements ITestParser {
         private void visitMethodAndAddAfoToTestcaseListIfPresent(final MethodDeclaration n) {
             final String methodname = n.getNameAsString();
             final boolean test = n.getAnnotations().stream()
-                .filter(ano -> "Test".equals(ano.getNameAsString()))
+                .filter(ano -> TEST_ANNOTATION.equals(ano.getNameAsString()))
                 .map(ano -> true)
                 .findAny()
                 .orElse(false);
@@ -154,25 +273,17 @@ public class AfoJavaTestParser implements ITestParser {
                 final Testcase tc = new Testcase();
                 tc.setClazz(clazzname);
                 tc.setMethod(methodname);
-                parser.parsedTestcases.putIfAbsent(tc.getClazz() + ":" + tc.getMethod(), tc);
-                final AtomicReference<Boolean> ref = new AtomicReference<>(false);
-                n.getAnnotations().stream()
-                    .filter(afo -> "Afo".equals(afo.getNameAsString()))
-                    .forEach(afo -> {
-                        ref.set(true);
-                        addTestCaseToAfo(tc, afo);
-                    });
-                if (!ref.get().booleanValue()) {
-                    parser.unreferencedTestcases.putIfAbsent(tc.getClazz() + ":" + tc.getMethod(), tc);
-                }
+                final List<String> afoIds = n.getAnnotations().stream()
+                    .filter(afo -> AFO_ANNOTATION.equals(afo.getNameAsString()))
+                    .map(afo -> getAfoId(tc, afo))
+                    .collect(Collectors.toList());
+                methods.add(new ParsedTestcase(tc, afoIds));
             }
         }
 
-        private void addTestCaseToAfo(final Testcase tc, final AnnotationExpr afo) {
+        private String getAfoId(final Testcase tc, final AnnotationExpr afo) {
             if (afo instanceof SingleMemberAnnotationExpr) {
-                final String id = ((SingleMemberAnnotationExpr) afo).getMemberValue().asStringLiteralExpr().asString();
-                parser.parsedTestcasesPerAfo.computeIfAbsent(id, k -> new ArrayList<>());
-                parser.parsedTestcasesPerAfo.get(id).add(tc);
+                return ((SingleMemberAnnotationExpr) afo).getMemberValue().asStringLiteralExpr().asString();
             } else {
                 throw new AfoReporterException(
                     "Unsupported Afo Annotation detected in " + tc.getClazz() + ":" + tc.getMethod() + "!");
@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -37,11 +38,18 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.springframework.web.util.HtmlUtils;
 
 /**
@@ -63,6 +71,16 @@ import org.springframework.web.util.HtmlUtils;
  *     <li>-tpl: folder containing html template files to be used when generating the report</li>
  *     <li>-d: dump debug logs to console</li>
  *     <li>-o: file to save HTML report to</li>
+ *     <li>-threads: number of threads used to parse the test source code and the test result files, 0 to use all
+ *              available processors</li>
+ *     <li>-cache: folder to store the parse cache in, so that unchanged input files are not parsed again</li>
+ *     <li>-streaming: stream JUnit XML and Serenity JSON result files instead of loading them completely into
+ *              memory</li>
+ *     <li>-capture: how to capture system out/err of JUnit test cases, none, head, tail, full or lazy</li>
+ *     <li>-capturesize: number of characters of system out/err in units of 1024 to keep for capture policies head and
+ *              tail</li>
+ *     <li>-orphans: JSON file to write the orphaned afos to, i.e. afo ids referenced by test cases but missing in the
+ *              requirements file</li>
  * </ul>
  * <p>
  *
@@ -103,6 +121,11 @@ public class AfoReporter {
     @Parameter(names = {"-testroot", "-tr"})
     List<String> testRoot = Collections
         .singletonList(Paths.get("..", FOLDER_IDP_GLOBAL, "idp-server", "src", "test").toAbsolutePath().toString());
+    /**
+     * glob patterns of files and folders below the test roots not to parse, patterns without / match the name only.
+     */
+    @Parameter(names = {"-exclude", "-ex"})
+    List<String> excludes = FileTreeWalker.DEFAULT_EXCLUDES;
     /**
      * list of folders to parse for JUnit XML test result files.
      */
@@ -115,15 +138,58 @@ public class AfoReporter {
     boolean dump;
     @Parameter(names = {"-out", "-o"})
     String reportFile = Paths.get(FOLDER_TARGET, "site", "serenity", "aforeport.html").toAbsolutePath().toString();
+    /**
+     * number of threads used to parse the test source code and the test result files. 1 parses sequentially, 0 uses all
+     * available processors.
+     */
+    @Parameter(names = {"-threads", "-th"})
+    int threads = 1;
+    /**
+     * folder to persist the records parsed from test source and result files in. If not set no cache is used.
+     */
+    @Parameter(names = {"-cache", "-c"})
+    String cacheFolder = null;
+    /**
+     * flag whether to stream JUnit XML and Serenity JSON test result files so that heap usage does not depend on the
+     * size of the result files.
+     */
+    @Parameter(names = {"-streaming", "-st"})
+    boolean streaming;
+    /**
+     * how to capture system out/err output of JUnit test cases.
+     */
+    @Parameter(names = {"-capture", "-cp"})
+    CapturePolicy capturePolicy = CapturePolicy.FULL;
+    /**
+     * number of characters of system out/err output in units of 1024 to keep per test case for capture policies HEAD
+     * and TAIL.
+     */
+    @Parameter(names = {"-capturesize", "-cs"})
+    int captureSize = 64;
+    /**
+     * file to write the afo ids referenced by test cases but missing in the requirements file to, as JSON array. If not
+     * set orphaned afos are only logged.
+     */
+    @Parameter(names = {"-orphans", "-or"})
+    String orphansFile = null;
+    /**
+     * whether to write a single self-contained HTML report or a slim report with styles, scripts and images written to
+     * an assets folder next to it.
+     */
+    @Parameter(names = {"-mode", "-m"})
+    ReportMode reportMode = ReportMode.SINGLE;
 
 
     /**
-     * memorizes any exception happening in any of the threads so that we can abort execution in the main thread if
-     * anything happened.
+     * parser used for the test source code, set by the test case stage and read by the merge stage.
      */
-    private Exception threadException = null;
     private ITestParser testParser;
 
+    /**
+     * pool interning the strings shared by parsed test cases and test results, created per run.
+     */
+    private StringPool stringPool;
+
     public static String getReporterVersion() {
         String version = null;
 
@@ -156,10 +222,17 @@ public class AfoReporter {
     public static void main(final String[] args) {
         log.info("STARTING AfoReporter V" + getReporterVersion() + "...");
         final AfoReporter main = new AfoReporter();
+        final PolarionExporter exporter = new PolarionExporter();
         log.info("  parsing cmd line...");
-        JCommander.newBuilder().addObject(main).build().parse(args);
+        final JCommander jc = JCommander.newBuilder().addObject(main)
+            .addCommand(PolarionExporter.COMMAND, exporter).build();
+        jc.parse(args);
         try {
-            main.run();
+            if (PolarionExporter.COMMAND.equals(jc.getParsedCommand())) {
+                exporter.run();
+            } else {
+                main.run();
+            }
         } catch (final Exception e) {
             log.error("Exiting", e);
             System.exit(1);
@@ -167,97 +240,151 @@ public class AfoReporter {
     }
 
     /**
-     * @param e exception to memorize for main thread aborting
-     * @see #threadException
+     * main method performing all tasks from reading the afos to creating the HTML report.
+     * <p>
+     * Reading the afos, parsing the test cases and parsing the test results are independent stages running
+     * concurrently. The merge stage creating the report starts as soon as all three stages are done. The first failure
+     * of any stage cancels all other stages by interrupting them and is rethrown on the calling thread.
+     *
+     * @throws AfoReporterException in case there is any failure
      */
-    private void reportException(final Exception e) {
-        threadException = e;
+    void run() {
+        // load templates up front so broken templates fail before parsing starts
+        final TemplateRegistry templates = TemplateRegistry.forFolder(templatesFolder);
+        stringPool = new StringPool();
+        log.info("  collecting all data...");
+        final ExecutorService executor = Executors.newFixedThreadPool(3, new StageThreadFactory());
+        final CompletableFuture<Void> failure = new CompletableFuture<>();
+        try {
+            final CompletableFuture<List<AfoData>> afos =
+                runStage("reading afos", this::readAfos, executor, failure);
+            final CompletableFuture<Map<String, List<Testcase>>> afotcs =
+                runStage("parsing test source code", this::parseTestcases, executor, failure);
+            final CompletableFuture<ResultStore.Builder> results =
+                runStage("parsing test results", this::parseTestResults, executor, failure);
+            final CompletableFuture<Void> merge = CompletableFuture.allOf(afos, afotcs, results)
+                .thenRunAsync(() -> mergeAndCreateReport(templates, afos.join(), afotcs.join(), results.join()),
+                    executor);
+            // cancel only after all stages are submitted, so that no submission is rejected by the stopped executor
+            failure.whenComplete((result, e) -> executor.shutdownNow());
+            CompletableFuture.anyOf(merge, failure).join();
+        } catch (final CompletionException e) {
+            throw toAfoReporterException(e.getCause());
+        } catch (final RejectedExecutionException e) {
+            throw new AfoReporterException(e);
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     /**
-     * main method performing all tasks from reading the afos to creating the HTML report.
+     * starts given task as stage of the pipeline. If the task fails and it is the first failure of the pipeline, the
+     * failure future is completed with its exception, which cancels all other stages.
      *
-     * @throws AfoReporterException in case there is any failure
+     * @param name     name of the stage for logging
+     * @param task     task of the stage
+     * @param executor executor running all stages
+     * @param failure  future completed exceptionally by the first failing stage
+     * @param <T>      result type of the stage
+     * @return future of the stage
      */
-    void run() {
-        final List<AfoData> afos = new ArrayList<>();
-        final Map<String, TestResult> results = new HashMap<>();
-        final Map<String, List<Testcase>> afotcs = new HashMap<>();
+    private <T> CompletableFuture<T> runStage(final String name, final Supplier<T> task,
+        final ExecutorService executor, final CompletableFuture<Void> failure) {
+        return CompletableFuture.supplyAsync(task, executor).whenComplete((result, e) -> {
+            if (e != null && failure.completeExceptionally(e)) {
+                log.error("Failure while " + name + ", cancelling all other stages", e.getCause());
+            }
+        });
+    }
 
-        log.info("  collecting all data...");
-        final Thread parseTestcases = initThreadToParseTestcases(afotcs);
-        final Thread parseResults = initThreadToParseTestResults(results);
-        parseTestcases.start();
-        parseResults.start();
+    private static AfoReporterException toAfoReporterException(final Throwable t) {
+        if (t instanceof AfoReporterException) {
+            return (AfoReporterException) t;
+        } else if (t instanceof Exception) {
+            return new AfoReporterException((Exception) t);
+        }
+        throw (Error) t;
+    }
 
+    /**
+     * reads the afos from the requirements file.
+     *
+     * @return list of afos, never empty
+     * @throws AfoReporterException if the file does not exist or contains no afos
+     */
+    private List<AfoData> readAfos() {
         final File localAfoFile = new File(afofile);
         if (!localAfoFile.exists()) {
             throw new AfoReporterException("Unable to find file " + localAfoFile.getAbsolutePath());
         }
+        final List<AfoData> afos = new ArrayList<>();
         readAfos(afos, localAfoFile);
-        // if no exception happened and afos have been returned its all fine else we send an error exit code
         if (afos.isEmpty()) {
             throw new AfoReporterException("No afos were found!");
         }
-        if (threadException != null) {
-            throw new AfoReporterException(threadException);
-        }
-        joinWorkerThreadAndRethrowAnyThreadException(parseTestcases);
-        joinWorkerThreadAndRethrowAnyThreadException(parseResults);
+        return afos;
+    }
 
+    /**
+     * merges afos, test cases and test results and creates the HTML report.
+     *
+     * @param templates templates to render the report with
+     * @param afos      afos read from the requirements file
+     * @param afotcs    test cases per afo id
+     * @param results   store filled with the test results
+     */
+    private void mergeAndCreateReport(final TemplateRegistry templates, final List<AfoData> afos,
+        final Map<String, List<Testcase>> afotcs, final ResultStore.Builder results) {
+        afos.sort(Comparator.comparing(AfoData::getId));
+        final AfoIndex index = new AfoIndex(afos);
         log.info("  checking for orphaned afos...");
-        afotcs.keySet().stream()
-            .filter(afoid -> afos.stream().noneMatch(afo -> afo.getId().equals(afoid)))
-            .forEach(afoid -> log.warn("    Orphaned Afo with ID '" + afoid + "'"));
+        final List<OrphanedAfo> orphans = index.findOrphans(afotcs);
+        orphans.forEach(orphan -> log.warn("    Orphaned Afo with ID '" + orphan.getId() + "'"));
+        if (orphansFile != null) {
+            writeOrphans(orphans, new File(orphansFile));
+        }
 
+        debug("    string pool: " + stringPool);
         log.info("  merging afos, tcs, results...");
-        // walk through all test cases of all afos, look the test case up in results and replace it with the result
-        // if no test case is found in the results map create UNKNOWN test result and replace it with that
-        // merge test case parser data with test results and attach it to the afo
-        afos.stream()
-            .filter(afo -> !"deleted".equals(afo.getAfoStatus().toString()))
-            .forEach(afo -> determineRequirementResult(afo, afotcs.get(afo.getId()), results));
-
-        final List<TestResult> unreferencedTestResults = testParser.getTestcasesWithoutAfo().values().stream()
-            .map(tc -> {
-                if (!results.containsKey(tc.getClazz() + ":" + tc.getMethod())) {
-                    return TestResult.fromTestcase(tc);
-                } else {
-                    return results.get(tc.getClazz() + ":" + tc.getMethod());
-                }
-            }).collect(Collectors.toList());
-        createHTMLReport(afos, results, unreferencedTestResults);
+        // walk through all test cases of all afos, look the test case up in the results and link it to the afo
+        // test cases without test result are skipped, the afo result is determined from the linked test results
+        // and collect the statistics in the same pass
+        final AfoStatistics.Builder statistics = AfoStatistics.builder();
+        for (int i = 0; i < afos.size(); i++) {
+            final AfoData afo = afos.get(i);
+            if (afo.getAfoStatus() != AfoStatus.DELETED) {
+                afo.setStatus(results.addAfo(afotcs.get(afo.getId())));
+            } else {
+                results.addAfo(null);
+            }
+            statistics.add(afo, results.getAfoTestcaseCount(i));
+        }
+        // test cases without afo reference and without test result are added with UNKNOWN result
+        testParser.getTestcasesWithoutAfo().values().forEach(results::addUnreferenced);
+        final ResultStore store = results.build();
+        dumpTestResults(store);
+        createHTMLReport(templates, afos, statistics.build(), store);
     }
 
     /**
-     * tries to join given thread and checks if any thread exception has been reported, will exit system with code -1
-     * if.
+     * writes the orphaned afos as JSON array to the given file, so that CI pipelines can check for them.
      *
-     * @param thread thread to join
-     * @see #threadException
+     * @param orphans orphaned afos
+     * @param file    file to write to, parent folders are created if needed
+     * @throws AfoReporterException if the file can not be written
      */
-    private void joinWorkerThreadAndRethrowAnyThreadException(final Thread thread) {
-        if (thread == null) {
-            debug("Thread not initialized, no need to wait");
-            return;
+    private void writeOrphans(final List<OrphanedAfo> orphans, final File file) {
+        if (log.isInfoEnabled()) {
+            log.info(String.format("    writing %d orphaned afos to %s...", orphans.size(), file.getAbsolutePath()));
         }
         try {
-            if (thread.isAlive()) {
-                debug(String.format("Joining thread %s", thread.getName()));
-                thread.join();
-            }
-        } catch (final InterruptedException e) {
-            if (log.isWarnEnabled()) {
-                log.warn(String.format("Interrupted exception while joining %s thread!", thread.getName()), e);
-            }
-            thread.interrupt();
-        }
-        if (threadException != null) {
-            throw new AfoReporterException(threadException);
+            FileUtils.forceMkdirParent(file);
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, orphans);
+        } catch (final IOException e) {
+            throw new AfoReporterException("Unable to write orphaned afos to " + file.getAbsolutePath(), e);
         }
     }
 
-
     /**
      * read afos from given JSON file into given list.
      *
@@ -282,102 +409,156 @@ public class AfoReporter {
     }
 
     /**
-     * initializes thread to parse JUnit test result xml or Serenity result json  files.
+     * parses JUnit test result xml or Serenity result json files.
      *
-     * @param results list to fill test results into.
-     * @return thread instance
+     * @return store builder filled with the test results
      */
-    private Thread initThreadToParseTestResults(final Map<String, TestResult> results) {
-        final Thread parseResults;
-        parseResults = new Thread(() -> {
-            try {
-                final ITestResultParser resultParser;
-                final List<String> folders;
-                final String logmsg;
-
-                if (bdd) {
-                    resultParser = new AfoSerenityTestResultParser();
-                    folders = resultRoot;
-                    logmsg = "    parsing serenity results in  %s...";
-                } else {
-                    resultParser = new AfoJUnitTestResultParser();
-                    folders = resultRoot;
-                    logmsg = "    parsing test results in  %s...";
-                }
-                for (final String rootdir : folders) {
-                    if (log.isInfoEnabled()) {
-                        log.info(String.format(logmsg, rootdir));
-                    }
-                    resultParser.parseDirectoryForResults(results, new File(rootdir));
-                }
-                logTestResultParsingResults(results);
-            } catch (final Exception e) {
-                log.error("Failure while parsing test results", e);
-                reportException(e);
+    private ResultStore.Builder parseTestResults() {
+        final ResultStore.Builder results = ResultStore.builder();
+        final ITestResultParser resultParser;
+        final ParseCache<TestResult> cache;
+        final List<String> folders;
+        final String logmsg;
+
+        if (bdd && streaming) {
+            final AfoSerenityStreamingTestResultParser serenityParser = new AfoSerenityStreamingTestResultParser();
+            cache = openCache("serenity-results-streaming.cache", ParseCache.TEST_RESULT_CODEC);
+            serenityParser.setCache(cache);
+            serenityParser.setStringPool(stringPool);
+            resultParser = serenityParser;
+            folders = resultRoot;
+            logmsg = "    streaming serenity results in  %s...";
+        } else if (bdd) {
+            final AfoSerenityTestResultParser serenityParser = new AfoSerenityTestResultParser();
+            cache = openCache("serenity-results.cache", ParseCache.TEST_RESULT_CODEC);
+            serenityParser.setCache(cache);
+            serenityParser.setStringPool(stringPool);
+            resultParser = serenityParser;
+            folders = resultRoot;
+            logmsg = "    parsing serenity results in  %s...";
+        } else if (streaming) {
+            final AfoJUnitStaxTestResultParser junitParser = new AfoJUnitStaxTestResultParser();
+            cache = openCache("junit-results-streaming" + getCaptureSuffix() + ".cache", ParseCache.TEST_RESULT_CODEC);
+            junitParser.setCache(cache);
+            junitParser.setStringPool(stringPool);
+            junitParser.setCapturePolicy(capturePolicy);
+            junitParser.setCaptureLimit(captureSize * 1024);
+            resultParser = junitParser;
+            folders = resultRoot;
+            logmsg = "    streaming test results in  %s...";
+        } else {
+            final AfoJUnitTestResultParser junitParser = new AfoJUnitTestResultParser();
+            cache = openCache("junit-results" + getCaptureSuffix() + ".cache", ParseCache.TEST_RESULT_CODEC);
+            junitParser.setCache(cache);
+            junitParser.setStringPool(stringPool);
+            junitParser.setCapturePolicy(capturePolicy);
+            junitParser.setCaptureLimit(captureSize * 1024);
+            resultParser = junitParser;
+            folders = resultRoot;
+            logmsg = "    parsing test results in  %s...";
+        }
+        final List<File> dirs = new ArrayList<>();
+        for (final String rootdir : folders) {
+            if (log.isInfoEnabled()) {
+                log.info(String.format(logmsg, rootdir));
             }
-        }, "res");
-        return parseResults;
+            dirs.add(new File(rootdir));
+        }
+        resultParser.parseDirectoriesForResults(results::addResult, dirs, threads);
+        cache.save();
+        if (log.isInfoEnabled()) {
+            log.info(String.format("    %d test results parsed...", results.getResultCount()));
+        }
+        return results;
     }
 
-    private void logTestResultParsingResults(final Map<String, TestResult> results) {
-        if (log.isInfoEnabled()) {
-            log.info(String.format("    %d test results parsed...", results.size()));
+    /**
+     * @return suffix for the name of the JUnit result cache file, so that results captured with another policy are
+     * not taken from the cache
+     */
+    private String getCaptureSuffix() {
+        final String suffix = "-" + capturePolicy.name().toLowerCase();
+        if (capturePolicy == CapturePolicy.HEAD || capturePolicy == CapturePolicy.TAIL) {
+            return suffix + captureSize;
+        }
+        return suffix;
+    }
+
+    private void dumpTestResults(final ResultStore store) {
+        if (!dump) {
+            return;
         }
-        for (final TestResult tr : results.values()) {
-            debug(String.format("      RES %s %s:%s", tr.getStatus(), tr.getClazz(), tr.getMethod()));
+        for (int row = 0; row < store.getResultCount(); row++) {
+            debug(String.format("      RES %s %s:%s", store.getStatus(row), store.getClazz(row), store.getMethod(row)));
         }
     }
 
     /**
-     * initializes thread to parse JUnit test cases from source or scenarios from Serenity result files.
+     * parses JUnit test cases from source or scenarios from cucumber feature files.
      *
-     * @param afotcs map of testcases per afo to fill test cases into.
-     * @return thread instance
+     * @return map of test cases per afo id
      */
-    private Thread initThreadToParseTestcases(final Map<String, List<Testcase>> afotcs) {
-        final Thread parseTestcases;
-        parseTestcases = new Thread(() -> {
-            try {
-
-                if (bdd) {
-                    parseScenariosFromCucumberSource(afotcs);
-                } else {
-                    parseTestCasesFromJavaSource(afotcs);
-                }
-                logResults(afotcs, testParser.getParsedTestcases());
-
-
-            } catch (final Exception e) {
-                log.error("Failure while parsing test source code", e);
-                reportException(e);
-            }
-        }, "tcs");
-        return parseTestcases;
+    private Map<String, List<Testcase>> parseTestcases() {
+        final Map<String, List<Testcase>> afotcs = new HashMap<>();
+        if (bdd) {
+            parseScenariosFromCucumberSource(afotcs);
+        } else {
+            parseTestCasesFromJavaSource(afotcs);
+        }
+        logResults(afotcs, testParser.getParsedTestcases());
+        return afotcs;
     }
 
     private void parseScenariosFromCucumberSource(final Map<String, List<Testcase>> afotcs) {
-        testParser = new AfoCucumberTestParser();
+        final AfoCucumberTestParser cucumberParser = new AfoCucumberTestParser(threads);
+        final ParseCache<ParsedTestcase> cache = openCache("features.cache", ParseCache.PARSED_TESTCASE_CODEC);
+        cucumberParser.setCache(cache);
+        cucumberParser.setStringPool(stringPool);
+        cucumberParser.setExcludes(excludes);
+        testParser = cucumberParser;
         for (final String rootdir : testRoot) {
             if (log.isInfoEnabled()) {
                 log.info(String.format("    parsing cucumber scenarios in  %s...", rootdir));
             }
             testParser.parseDirectory(new File(rootdir));
         }
+        cache.save();
         afotcs.putAll(testParser.getParsedTestcasesPerAfo());
     }
 
     private void parseTestCasesFromJavaSource(final Map<String, List<Testcase>> afotcs) {
-        testParser = new AfoJavaTestParser();
+        final AfoJavaTestParser javaParser = new AfoJavaTestParser(threads);
+        final ParseCache<ParsedTestcase> cache = openCache("java-tests.cache", ParseCache.PARSED_TESTCASE_CODEC);
+        javaParser.setCache(cache);
+        javaParser.setStringPool(stringPool);
+        javaParser.setExcludes(excludes);
+        testParser = javaParser;
         for (final String rootdir : testRoot) {
             if (log.isInfoEnabled()) {
                 log.info(String.format("    parsing test source code in  %s...", rootdir));
             }
             testParser.parseDirectory(new File(rootdir));
         }
+        cache.save();
         afotcs.putAll(testParser.getParsedTestcasesPerAfo());
     }
 
-    private void logResults(final Map<String, List<Testcase>> afotcs, final Map<String, Testcase> tcsMap) {
+    /**
+     * opens the parse cache file with given name in the cache folder.
+     *
+     * @param name  name of the cache file
+     * @param codec codec for the cached records
+     * @param <T>   type of cached records
+     * @return the parse cache, or a disabled cache if no cache folder is configured
+     */
+    private <T> ParseCache<T> openCache(final String name, final ParseCache.Codec<T> codec) {
+        if (cacheFolder == null) {
+            return ParseCache.disabled();
+        }
+        return ParseCache.open(new File(cacheFolder), name, codec);
+    }
+
+    private void logResults(final Map<String, List<Testcase>> afotcs, final Map<TestKey, Testcase> tcsMap) {
         if (log.isInfoEnabled()) {
             log.info(
                 String.format("    test code parsed, found %d referenced afos and %d test cases", afotcs.size(),
@@ -395,49 +576,34 @@ public class AfoReporter {
      * creates html with header + overview section + list of afos (requirements) with each added a collapsable test case
      * list.
      *
-     * @param afos                    list of requirements
-     * @param results                 map of test results per afo
-     * @param unreferencedTestresults list of testcases (as result) that had no afo reference
+     * @param templates templates to render the report with
+     * @param afos      list of requirements sorted by id
+     * @param stats     statistic numbers of the requirements
+     * @param store     test results linked to the requirements and test cases without afo reference
      */
-    private void createHTMLReport(final List<AfoData> afos, final Map<String, TestResult> results,
-        final List<TestResult> unreferencedTestresults) {
+    private void createHTMLReport(final TemplateRegistry templates, final List<AfoData> afos,
+        final AfoStatistics stats, final ResultStore store) {
         log.info("  creating HTML report...");
         final File aforeport = checkTargetFolderNReportFile();
         try {
-            final String header;
-            String body;
-            if (templatesFolder == null) {
-                log.info("    Using internal templates...");
-                header = getUTF8Resource("/de/gematik/idp/tests/aforeport/header.html");
-                body = getUTF8Resource("/de/gematik/idp/tests/aforeport/body.html");
-            } else {
-                log.info("    Using templates from '" + templatesFolder + "'...");
-                header = FileUtils
-                    .readFileToString(new File(templatesFolder + File.separator + "header.html"),
-                        StandardCharsets.UTF_8);
-                body = FileUtils
-                    .readFileToString(new File(templatesFolder + File.separator + "body.html"), StandardCharsets.UTF_8);
-            }
-            final AfoStatistics stats = new AfoStatistics(afos);
 
             // overview section
-            body = body.replace("${ReportDate}",
-                ZonedDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy - HH:mm:ss")))
-                .replace("${ReporterVersion}", getReporterVersion())
-                .replace("${AfoNum}", stats.getSum() + " / " + (stats.getSum() + stats.deletedUnknown))
-                .replace("${TCAfoNum}", String.valueOf(stats.getValue("tcs")))
-                .replace("${TCNum}", String.valueOf(results.size()))
-                .replace("${unrefScenarios}", String.valueOf(unreferencedTestresults.size()));
-            final String[] replaceTokens = {
-                "passed", "failed", "skipped", "error"
+            final Map<String, Object> values = new HashMap<>();
+            values.put("ReportDate", ZonedDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy - HH:mm:ss")));
+            values.put("ReporterVersion", getReporterVersion());
+            values.put("AfoNum", stats.getSum() + " / " + stats.getTotal());
+            values.put("TCAfoNum", String.valueOf(stats.getTestcases()));
+            values.put("TCNum", String.valueOf(store.getResultCount()));
+            values.put("unrefScenarios", String.valueOf(store.getUnreferenced().length));
+            final Result[] replaceTokens = {
+                Result.PASSED, Result.FAILED, Result.SKIPPED, Result.ERROR
             };
-            for (final String token : replaceTokens) {
-                body = body.replace("${" + token + "Afo}",
-                    stats.getValue(token) + " ( " +
-                        String.format("%.1f", stats.getPercentage(token) * 100) + "% )");
+            for (final Result token : replaceTokens) {
+                values.put(token.toString().toLowerCase() + "Afo", stats.getCount(token) + " ( " +
+                    String.format("%.1f", stats.getPercentage(token) * 100) + "% )");
             }
 
-            body = body.replace("${unknownAfo}", (stats.unknown - stats.deletedUnknown) + " / " + stats.unknown);
+            values.put("unknownAfo", stats.getRealUnknown() + " / " + stats.getCount(Result.UNKNOWN));
 
             // ${Slices} for pie chart
             // based upon https://medium.com/hackernoon/a-simple-pie-chart-in-svg-dbdd653b6936
@@ -447,42 +613,84 @@ public class AfoReporter {
                     "  { percent: %s, color: 'orangered' },\n" +
                     "  { percent: %s, color: 'darkred' },\n" +
                     "  { percent: %s, color: '#BCC4CA' }\n",
-                stats.getPercentage("passed"),
-                stats.getPercentage("skipped"),
-                stats.getPercentage("failed"),
-                stats.getPercentage("error"),
-                stats.getPercentage("realunknown"));
+                stats.getPercentage(Result.PASSED),
+                stats.getPercentage(Result.SKIPPED),
+                stats.getPercentage(Result.FAILED),
+                stats.getPercentage(Result.ERROR),
+                stats.getPercentage(Result.UNKNOWN));
+            values.put("Slices", slices);
+
+            if (reportMode == ReportMode.DATA) {
+                createDataReport(templates.getViewer(), aforeport, values, afos, store);
+                return;
+            }
+            final String header;
+            final Template body;
+            if (reportMode == ReportMode.ASSETS) {
+                final ReportAssets assets = templates.getAssets();
+                assets.writeTo(new File(aforeport.getAbsoluteFile().getParentFile(), ReportAssets.ASSETS_FOLDER));
+                header = assets.getHeader();
+                body = assets.getBody();
+            } else {
+                header = templates.getHeader();
+                body = templates.getBody();
+            }
+            final Template afoentry = templates.getAfoentry();
+            final Template tcentry = templates.getTcentry();
             // list of afos that have tests associated
-            final String afoTestedListHTML = createHTMLAfoList(afos.stream()
-                .filter(afo -> afo.getResults() != null && !afo.getResults().isEmpty())
-                .collect(Collectors.toList()));
+            final int[] afosTested = IntStream.range(0, afos.size())
+                .filter(i -> store.getAfoTestcaseCount(i) > 0)
+                .toArray();
+            values.put("AfosTested",
+                (Template.Section) out -> createHTMLAfoList(out, afoentry, tcentry, afos, store, afosTested));
             // untested afos
-            final String afoNoTestsListHTML = createHTMLAfoList(afos.stream()
-                .filter(afo -> afo.getResults() == null || afo.getResults().isEmpty())
-                .collect(Collectors.toList()));
-
-            final String tcentry;
-            if (templatesFolder == null) {
-                tcentry = getUTF8Resource("/de/gematik/idp/tests/aforeport/tcentry.html");
-            } else {
-                tcentry = FileUtils
-                    .readFileToString(new File(templatesFolder + File.separator + "tcentry.html"),
-                        StandardCharsets.UTF_8);
+            final int[] afosUntested = IntStream.range(0, afos.size())
+                .filter(i -> store.getAfoTestcaseCount(i) == 0)
+                .toArray();
+            values.put("AfosUnTested",
+                (Template.Section) out -> createHTMLAfoList(out, afoentry, tcentry, afos, store, afosUntested));
+            values.put("ScenariosUnreferenced", (Template.Section) out -> createHTMLScenarioList(out, tcentry, store));
+
+            // stream report to file, afo lists are written entry by entry while rendering the body
+            try (final Writer writer = Files.newBufferedWriter(aforeport.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(header);
+                writer.write('\n');
+                body.render(writer, values);
+                writer.write("\n</html>");
             }
-            final String unrefScenariosListHTML = createHTMLScenarioList(tcentry, unreferencedTestresults);
-
-            body = body.replace("${Slices}", slices)
-                .replace("${AfosTested}", afoTestedListHTML)
-                .replace("${AfosUnTested}", afoNoTestsListHTML)
-                .replace("${ScenariosUnreferenced}", unrefScenariosListHTML);
-
-            FileUtils.writeStringToFile(aforeport, header + "\n" + body + "\n</html>", StandardCharsets.UTF_8);
             log.info("  HTML report created as " + aforeport.getAbsolutePath());
-        } catch (final IOException | IllegalAccessException | NoSuchFieldException e) {
+        } catch (final IOException e) {
             throw new AfoReporterException("Failure while creating HTML report", e);
         }
     }
 
+    /**
+     * writes the afos and test results as JSON data file next to the report file and the viewer page rendering them as
+     * report file.
+     *
+     * @param viewer                  viewer page template
+     * @param aforeport               report file
+     * @param values                  values of the overview section
+     * @param afos                    list of requirements
+     * @param store                   test results linked to the requirements and test cases without afo reference
+     * @throws IOException if writing the files fails
+     */
+    private void createDataReport(final Template viewer, final File aforeport, final Map<String, Object> values,
+        final List<AfoData> afos, final ResultStore store) throws IOException {
+        final String name = aforeport.getName();
+        final File dataFile = new File(aforeport.getAbsoluteFile().getParentFile(),
+            (name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name) + ".data.js");
+        try (final Writer writer = Files.newBufferedWriter(dataFile.toPath(), StandardCharsets.UTF_8)) {
+            ReportData.write(writer, afos, store);
+        }
+        log.info("    data file written to " + dataFile.getAbsolutePath());
+        values.put("DataFile", dataFile.getName());
+        try (final Writer writer = Files.newBufferedWriter(aforeport.toPath(), StandardCharsets.UTF_8)) {
+            viewer.render(writer, values);
+        }
+        log.info("  HTML report created as " + aforeport.getAbsolutePath());
+    }
+
     /**
      * checks whether target folder exists and creates it if not. Also checks if there is a report file and if deletes
      * it.
@@ -505,87 +713,68 @@ public class AfoReporter {
         return aforeport;
     }
 
-    /**
-     * return string as UTF8 read from the resource with given name
-     *
-     * @param resname name of resource to read
-     * @return UTF8 string representation
-     * @throws IOException if reading the resource fails
-     */
-    private String getUTF8Resource(final String resname) throws IOException {
-        return IOUtils.toString(getClass().getResourceAsStream(resname), StandardCharsets.UTF_8);
-    }
-
     /**
      * creates HTML list of afos, with title, test result bar shown and a collapsable section with detailed test results
      * list.
      *
-     * @param afos list of requirements to create HTML section for
-     * @return HTML code for list of afos
-     * @throws IOException if readingthe template files fails
+     * @param out        output to write HTML code for list of afos to
+     * @param afoentry   compiled template for a single afo
+     * @param tcentry    compiled template for a single test case
+     * @param afos       list of all requirements
+     * @param store      test results linked to the requirements
+     * @param afoIndices indices of the requirements to create HTML section for
+     * @throws IOException if writing to the output fails
      */
-    private String createHTMLAfoList(final List<AfoData> afos) throws IOException {
-
-        final String afoentry;
-        final String tcentry;
-
-        if (templatesFolder == null) {
-            afoentry = getUTF8Resource("/de/gematik/idp/tests/aforeport/afoentry.html");
-            tcentry = getUTF8Resource("/de/gematik/idp/tests/aforeport/tcentry.html");
-        } else {
-            afoentry = FileUtils
-                .readFileToString(new File(templatesFolder + File.separator + "afoentry.html"), StandardCharsets.UTF_8);
-            tcentry = FileUtils
-                .readFileToString(new File(templatesFolder + File.separator + "tcentry.html"), StandardCharsets.UTF_8);
-        }
-
-        final StringBuilder afolist = new StringBuilder();
+    private void createHTMLAfoList(final Appendable out, final Template afoentry, final Template tcentry,
+        final List<AfoData> afos, final ResultStore store, final int[] afoIndices) throws IOException {
         final String HIDDEN = "hidden";
+        final Map<String, Object> values = new HashMap<>();
 
-        afos.sort(Comparator.comparing(AfoData::getId));
-        for (final AfoData afo : afos) {
+        for (final int i : afoIndices) {
+            final AfoData afo = afos.get(i);
             final StringBuilder tclist = new StringBuilder();
-            final String resultbar = createResultBarNTestCaseList(tcentry, afo, tclist);
+            final String resultbar = createResultBarNTestCaseList(tcentry, store, store.getAfoTestcases(i), tclist);
             String status = afo.getStatus().toString().toLowerCase();
             if (afo.getAfoStatus() == AfoStatus.DELETED) {
                 status = "deleted";
             }
-            afolist.append(afoentry.replace("${status}", status)
-                .replace("${AfoID}", afo.getIdAndVersion()).replace("${AfoTitle}", afo.getTitle())
-                .replace("${AfoPetStatus}", Optional.ofNullable(afo.getPetStatus()).orElse("notBinding"))
-                .replace("${AfoDescription}",
-                    HtmlUtils.htmlEscape(Optional.ofNullable(afo.getDescription()).orElse("")))
-                .replace("${Testresults}", tclist).replace("${AfoResultBar}", resultbar)
-                .replace("${AfoStatus}", afo.getAfoStatus().toString())
-                .replace("${AfoHasRef}", afo.getRefName() == null ? HIDDEN : "")
-                .replace("${AfoRefName}", Objects.requireNonNullElse(afo.getRefName(), "Undefiniert"))
-                .replace("${AfoRefURL}", afo.getRefURL() != null ? "href=\"" + afo.getRefURL() + "\"" : "")
-                .replace("${AfoRefHasURL}", afo.getRefURL() == null ? HIDDEN : "")
-                .replace("${AfoAddedManually}", afo.getAfoStatus() == AfoStatus.ADDED ? "" : HIDDEN));
-        }
-        return afolist.toString();
+            values.put("status", status);
+            values.put("AfoID", afo.getIdAndVersion());
+            values.put("AfoTitle", afo.getTitle());
+            values.put("AfoPetStatus", Optional.ofNullable(afo.getPetStatus()).orElse("notBinding"));
+            values.put("AfoDescription", HtmlUtils.htmlEscape(Optional.ofNullable(afo.getDescription()).orElse("")));
+            values.put("Testresults", tclist);
+            values.put("AfoResultBar", resultbar);
+            values.put("AfoStatus", afo.getAfoStatus().toString());
+            values.put("AfoHasRef", afo.getRefName() == null ? HIDDEN : "");
+            values.put("AfoRefName", Objects.requireNonNullElse(afo.getRefName(), "Undefiniert"));
+            values.put("AfoRefURL", afo.getRefURL() != null ? "href=\"" + afo.getRefURL() + "\"" : "");
+            values.put("AfoRefHasURL", afo.getRefURL() == null ? HIDDEN : "");
+            values.put("AfoAddedManually", afo.getAfoStatus() == AfoStatus.ADDED ? "" : HIDDEN);
+            afoentry.render(out, values);
+        }
     }
 
     private String createResultBarNTestCaseList(
-        final String tcentry,
-        final AfoData afo,
+        final Template tcentry,
+        final ResultStore store,
+        final int[] rows,
         final StringBuilder tclist) {
         final String resultbar;
-        if (afo.getResults() != null && !afo.getResults().isEmpty()) {
+        if (rows.length > 0) {
             final StringBuilder bardata = new StringBuilder();
-            afo.getResults().stream()
-                .sorted(Comparator.comparing(Testcase::getClazz))
-                .forEach(tr -> {
-                    tclist.append(tcentry.replace("${TCStatus}", tr.getStatus().toString().toLowerCase())
-                        .replace("${TCPath}", tr.getPath())
-                        .replace("${TCMethod}", tr.getScenarioName())
-                        .replace("${TCClass}", tr.getFeatureName()));
-                    bardata.append(tr.getStatus().toString().charAt(0));
-                });
+            final Map<String, Object> values = new HashMap<>();
+            for (final int row : rows) {
+                values.put("TCStatus", store.getStatus(row).toString().toLowerCase());
+                values.put("TCPath", store.getPath(row));
+                values.put("TCMethod", store.getScenarioName(row));
+                values.put("TCClass", store.getFeatureName(row));
+                tcentry.render(tclist, values);
+                bardata.append(store.getStatus(row).toString().charAt(0));
+            }
             resultbar = "<div class=\"resultbar\" data-value=\"" + bardata.toString() + "\"></div> "
                 + "<span class=\"right small text-muted\">("
-                + Objects.requireNonNullElseGet(afo.getResults(),
-                () -> new ArrayList<>(0)).size()
+                + rows.length
                 + ")</span>";
         } else {
             tclist.append("<h4 class=\"text-muted\">No Test cases / test results found</h4>");
@@ -594,42 +783,16 @@ public class AfoReporter {
         return resultbar;
     }
 
-    private String createHTMLScenarioList(final String tcentry, final List<TestResult> unreferencedTestresults) {
-        final StringBuilder sb = new StringBuilder();
-        unreferencedTestresults.stream()
-            .sorted(Comparator.comparing(Testcase::getClazz))
-            .forEach(tr -> sb.append(tcentry.replace("${TCStatus}", tr.getStatus().toString().toLowerCase())
-                .replace("${TCPath}", Optional.ofNullable(tr.getPath()).orElse(""))
-                .replace("${TCMethod}", Optional.ofNullable(tr.getScenarioName()).orElse("UNDEFINED"))
-                .replace("${TCClass}", Optional.ofNullable(tr.getFeatureName()).orElse("UNDEFINED"))));
-        return sb.toString();
-    }
-
-
-    /**
-     * iterates through all test cases and if test result exists, add it to the given afo. At the end determines the
-     * overall result status of the afo based on all found test results.
-     *
-     * @param afo       requirement to look up results for
-     * @param testcases list of test cases knwon to be linked to given afo
-     * @param results   list of all test results found
-     */
-    private void determineRequirementResult(final AfoData afo, final List<Testcase> testcases,
-        final Map<String, TestResult> results) {
-        if (testcases == null || testcases.isEmpty()) {
-            afo.setStatus(Result.UNKNOWN);
-            afo.setResults(new ArrayList<>());
-            return;
-        }
-        final List<TestResult> aforesults = new ArrayList<>();
-        for (final Testcase tc : Objects.requireNonNull(testcases)) {
-            final TestResult tr = results.get(tc.getClazz() + ":" + tc.getMethod());
-            if (tr != null) {
-                aforesults.add(tr);
-            }
+    private void createHTMLScenarioList(final Appendable out, final Template tcentry, final ResultStore store)
+        throws IOException {
+        final Map<String, Object> values = new HashMap<>();
+        for (final int row : store.getUnreferenced()) {
+            values.put("TCStatus", store.getStatus(row).toString().toLowerCase());
+            values.put("TCPath", Optional.ofNullable(store.getPath(row)).orElse(""));
+            values.put("TCMethod", Optional.ofNullable(store.getScenarioName(row)).orElse("UNDEFINED"));
+            values.put("TCClass", Optional.ofNullable(store.getFeatureName(row)).orElse("UNDEFINED"));
+            tcentry.render(out, values);
         }
-        afo.setResults(aforesults);
-        afo.setStatus(getRequirementStatusFrom(aforesults));
     }
 
     /**
@@ -640,99 +803,11 @@ public class AfoReporter {
     Result getRequirementStatusFrom(final List<TestResult> aforesults) {
         Result aforesult = Result.UNKNOWN;
         for (final TestResult tr : aforesults) {
-            if (tr.status == Result.PASSED && (aforesult == Result.UNKNOWN || aforesult == Result.SKIPPED)) {
-                aforesult = Result.PASSED;
-            } else if (tr.status == Result.SKIPPED && aforesult == Result.UNKNOWN) {
-                aforesult = Result.SKIPPED;
-            } else if (tr.status == Result.FAILED) {
-                aforesult = Result.FAILED;
-            } else if (tr.status == Result.ERROR) {
-                return Result.ERROR;
-            }
+            aforesult = Result.combine(aforesult, tr.status);
         }
         return aforesult;
     }
 
-    /**
-     * Helper class to provide statistic numbers for all requirements found.
-     */
-    static class AfoStatistics {
-
-        int passed = 0;
-        int skipped = 0;
-        int failed = 0;
-        int error = 0;
-        int unknown = 0;
-        int deletedUnknown = 0;
-        int realunknown;
-        int tcs = 0;
-
-        AfoStatistics(final List<AfoData> afos) {
-            afos.stream()
-                .filter(afo -> afo.getStatus() != null)
-                .forEach(afo -> {
-                    switch (afo.getStatus()) {
-                        case PASSED:
-                            passed++;
-                            break;
-                        case SKIPPED:
-                            skipped++;
-                            break;
-                        case FAILED:
-                            failed++;
-                            break;
-                        case ERROR:
-                            error++;
-                            break;
-                        default:
-                        case UNKNOWN:
-                            unknown++;
-                            if (afo.getAfoStatus() == AfoStatus.DELETED) {
-                                deletedUnknown++;
-                            }
-                            break;
-                    }
-                    if (afo.getResults() != null) {
-                        tcs += afo.getResults().size();
-                    }
-                });
-            realunknown = unknown - deletedUnknown;
-        }
-
-        /**
-         * returns the sum of all results.
-         *
-         * @return sum of all results
-         */
-        int getSum() {
-            return passed + skipped + failed + error + unknown - deletedUnknown;
-        }
-
-        /**
-         * returns the absolute value of given type.
-         *
-         * @param type one of [passed|skipped|faile|error|unknown|tcs]
-         * @return int value of given type
-         * @throws NoSuchFieldException   if not one of the supported types
-         * @throws IllegalAccessException should never happen
-         */
-        int getValue(final String type) throws NoSuchFieldException, IllegalAccessException {
-            return getClass().getDeclaredField(type).getInt(this);
-        }
-
-        /**
-         * returns the percentage value in range [0-1] of given type.
-         *
-         * @param type one of [passed|skipped|faile|error|unknown|tcs]
-         * @return double percentage value of given type
-         * @throws NoSuchFieldException   if not one of the supported types
-         * @throws IllegalAccessException should never happen
-         */
-        double getPercentage(final String type) throws NoSuchFieldException, IllegalAccessException {
-            return ((double) getValue(type)) / ((double) getSum());
-        }
-    }
-
     public void debug(final String msg) {
         if (dump) {
             if (log.isDebugEnabled()) {
@@ -742,4 +817,17 @@ public class AfoReporter {
             }
         }
     }
+
+    /**
+     * Creates the threads running the stages of {@link #run()}, named so that they can be told apart in the logs.
+     */
+    private static class StageThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            return new Thread(r, "stage-" + count.incrementAndGet());
+        }
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses Serenity BDD JSON result files with a Jackson streaming parser instead of building an org.json tree.
+ * <p>
+ * Only the fields needed for the test result are read (id, title, result, userStory.storyName, userStory.path and
+ * message and errorType of exception / testFailureCause). All other subtrees like test steps, screenshots or REST
+ * request/response bodies are skipped without being materialized. The produced test results are the same as the ones
+ * of {@link AfoSerenityTestResultParser}.
+ */
+@Slf4j
+public class AfoSerenityStreamingTestResultParser implements ITestResultParser {
+
+    /**
+     * result files are only looked for in the result folder itself, not in its sub folders.
+     */
+    private static final FileTreeWalker RESULT_FILES = FileTreeWalker.including("*.json").maxDepth(1);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Set<String> ROOT_FIELDS = Set.of("id", "title", "result");
+    private static final Set<String> USER_STORY_FIELDS = Set.of("storyName", "path");
+    private static final Set<String> ERROR_FIELDS = Set.of("message", "errorType");
+
+    /**
+     * cache of parsed test results per result file, disabled by default.
+     */
+    @Setter
+    private ParseCache<TestResult> cache = ParseCache.disabled();
+
+    /**
+     * pool the shared strings of parsed test results are interned in.
+     */
+    @Setter
+    private StringPool stringPool = new StringPool();
+
+    @Override
+    public List<File> listResultFiles(final File rootDir) {
+        if (rootDir == null) {
+            log.warn("Invalid test source NULL root dir");
+            return List.of();
+        }
+        return RESULT_FILES.walk(rootDir).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TestResult> parseResultFile(final File file) {
+        return stringPool.internAll(cache.get(file, this::inspectFileForResults));
+    }
+
+    private List<TestResult> inspectFileForResults(final File f) {
+        if (f.getName().equals("requirements.json")) {
+            return List.of();
+        }
+        final Map<String, String> root = new HashMap<>();
+        final Map<String, String> userStory = new HashMap<>();
+        Map<String, String> exception = null;
+        Map<String, String> testFailureCause = null;
+        try (final JsonParser parser = JSON_FACTORY.createParser(FileContent.stream(f))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Serenity result is no JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                switch (name) {
+                    case "userStory":
+                        readFields(parser, USER_STORY_FIELDS, userStory);
+                        break;
+                    case "exception":
+                        exception = readFields(parser, ERROR_FIELDS, new HashMap<>());
+                        break;
+                    case "testFailureCause":
+                        testFailureCause = readFields(parser, ERROR_FIELDS, new HashMap<>());
+                        break;
+                    default:
+                        if (ROOT_FIELDS.contains(name)) {
+                            root.put(name, getStringValue(parser));
+                        }
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            final TestResult tr = new TestResult();
+            setTestCaseClassNMethod(root, userStory, tr);
+            tr.setStatus(AfoSerenityTestResultParser.mapSerenityStatus(getString(root, "result")));
+            if (tr.status == Result.ERROR || tr.status == Result.FAILED) {
+                final Map<String, String> err = exception != null ? exception : testFailureCause;
+                if (err == null) {
+                    throw new AfoReporterException("Unable to find failure/error details in " + f.getAbsolutePath());
+                }
+                tr.setErrmessage(getString(err, "message"));
+                tr.setErrdetails(""); // TO DO add stacktrace here
+                tr.setErrtype(getString(err, "errorType"));
+            }
+            return List.of(tr);
+        } catch (final IOException ioe) {
+            log.error("Failed to parse BDD file " + f.getAbsolutePath(), ioe);
+            return List.of();
+        }
+    }
+
+    /**
+     * reads the given scalar fields of the object the parser is positioned on into the given map, skipping all other
+     * fields. Leaves the parser on the end of the object.
+     */
+    private static Map<String, String> readFields(final JsonParser parser, final Set<String> fields,
+        final Map<String, String> values) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return values;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            parser.nextToken();
+            if (fields.contains(name)) {
+                values.put(name, getStringValue(parser));
+            }
+            parser.skipChildren();
+        }
+        return values;
+    }
+
+    /**
+     * @return text of the current token if it is a string value, else null
+     */
+    private static String getStringValue(final JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+    }
+
+    /**
+     * @return value of the field, as strict as JSONObject.getString
+     * @throws IOException if the field is missing or no string value
+     */
+    private static String getString(final Map<String, String> values, final String name) throws IOException {
+        final String value = values.get(name);
+        if (value == null) {
+            throw new IOException("Missing string field " + name);
+        }
+        return value;
+    }
+
+    private void setTestCaseClassNMethod(final Map<String, String> root, final Map<String, String> userStory,
+        final Testcase tc) throws IOException {
+        final String[] idarr = getString(root, "id").split(";");
+        tc.setClazz(String.join(".", Arrays.copyOf(idarr, idarr.length - 1)));
+        tc.setMethod(idarr[idarr.length - 1]);
+        tc.setFeatureName(getString(userStory, "storyName"));
+        tc.setScenarioName(getString(root, "title"));
+        tc.setPath(getString(userStory, "path"));
+    }
+}
@@ -18,42 +18,57 @@ package de.gematik.idp.tests.aforeport;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Reader;
 import java.util.Arrays;
-import java.util.Map;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 @Slf4j
 public class AfoSerenityTestResultParser implements ITestResultParser {
 
+    /**
+     * result files are only looked for in the result folder itself, not in its sub folders.
+     */
+    private static final FileTreeWalker RESULT_FILES = FileTreeWalker.including("*.json").maxDepth(1);
+
+    /**
+     * cache of parsed test results per result file, disabled by default.
+     */
+    @Setter
+    private ParseCache<TestResult> cache = ParseCache.disabled();
+
+    /**
+     * pool the shared strings of parsed test results are interned in.
+     */
+    @Setter
+    private StringPool stringPool = new StringPool();
+
     @Override
-    public void parseDirectoryForResults(final Map<String, TestResult> results, final File rootDir) {
+    public List<File> listResultFiles(final File rootDir) {
         if (rootDir == null) {
             log.warn("Invalid test source NULL root dir");
-        } else {
-            final File[] files = rootDir.listFiles();
-            if (files == null) {
-                if (log.isWarnEnabled()) {
-                    log.warn(String.format("Invalid test source root dir %s", rootDir.getAbsolutePath()));
-                }
-            } else {
-                Arrays.stream(files)
-                    .filter(f -> f.isFile() && f.getName().endsWith(".json"))
-                    .forEach(f -> inspectFileForResults(f, results));
-            }
+            return List.of();
         }
+        return RESULT_FILES.walk(rootDir).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TestResult> parseResultFile(final File file) {
+        return stringPool.internAll(cache.get(file, this::inspectFileForResults));
     }
 
     // TO DO move to ctor for Testcase with JSONObject as param
-    private void inspectFileForResults(final File f, final Map<String, TestResult> results) {
+    private List<TestResult> inspectFileForResults(final File f) {
         if (f.getName().equals("requirements.json")) {
-            return;
+            return List.of();
         }
-        try {
-            final String gherkin = Files.readString(f.toPath());
-            final JSONObject jso = new JSONObject(gherkin);
+        try (final Reader reader = FileContent.reader(f)) {
+            final JSONObject jso = new JSONObject(new JSONTokener(reader));
             final TestResult tr = new TestResult();
             setTestCaseClassNMethod(jso, tr);
             tr.setStatus(mapSerenityStatus(jso.getString("result")));
@@ -70,10 +85,10 @@ public class AfoSerenityTestResultParser implements ITestResultParser {
                 tr.setErrdetails(""); // TO DO add stacktrace here
                 tr.setErrtype(jsoErr.getString("errorType"));
             }
-            results.put(tr.getClazz() + ":" + tr.getMethod(), tr);
-
+            return List.of(tr);
         } catch (final IOException | JSONException ioe) {
             log.error("Failed to parse BDD file " + f.getAbsolutePath(), ioe);
+            return List.of();
         }
     }
 
@@ -87,7 +102,7 @@ public class AfoSerenityTestResultParser implements ITestResultParser {
         tc.setPath(jso.getJSONObject("userStory").getString("path"));
     }
 
-    private Result mapSerenityStatus(final String serenityStatus) {
+    static Result mapSerenityStatus(final String serenityStatus) {
         switch (serenityStatus) {
             case "FAILURE":
                 return Result.FAILED;
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * <p>Immutable statistic numbers for all requirements of a report.
+ * <p>
+ * Afos are counted per {@link Result}. Manually deleted afos without test results are counted as unknown, but are not
+ * part of the sum of all afos. The statistics are collected with a {@link Builder} while merging the test results
+ * into the afos, so no additional pass over all afos is needed.</p>
+ */
+public final class AfoStatistics {
+
+    private final Map<Result, Integer> counts;
+    private final int deletedUnknown;
+    private final int testcases;
+
+    private AfoStatistics(final int[] counts, final int deletedUnknown, final int testcases) {
+        final Map<Result, Integer> map = new EnumMap<>(Result.class);
+        for (final Result result : Result.values()) {
+            map.put(result, counts[result.ordinal()]);
+        }
+        this.counts = Collections.unmodifiableMap(map);
+        this.deletedUnknown = deletedUnknown;
+        this.testcases = testcases;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return number of afos per result, including manually deleted afos
+     */
+    public Map<Result, Integer> getCounts() {
+        return counts;
+    }
+
+    /**
+     * @param result test result
+     * @return number of afos with given result, including manually deleted afos
+     */
+    public int getCount(final Result result) {
+        return counts.get(result);
+    }
+
+    /**
+     * @return number of manually deleted afos with unknown result
+     */
+    public int getDeletedUnknown() {
+        return deletedUnknown;
+    }
+
+    /**
+     * @return number of afos with unknown result, without manually deleted afos
+     */
+    public int getRealUnknown() {
+        return getCount(Result.UNKNOWN) - deletedUnknown;
+    }
+
+    /**
+     * @return number of all afos, without manually deleted afos with unknown result
+     */
+    public int getSum() {
+        return getTotal() - deletedUnknown;
+    }
+
+    /**
+     * @return number of all afos, including manually deleted afos
+     */
+    public int getTotal() {
+        int total = 0;
+        for (final int count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return number of test results attached to the afos
+     */
+    public int getTestcases() {
+        return testcases;
+    }
+
+    /**
+     * returns the share of afos with given result in the sum of all afos. For unknown results manually deleted afos are
+     * not taken into account.
+     *
+     * @param result test result
+     * @return percentage value in range [0-1], 0 if there are no afos
+     */
+    public double getPercentage(final Result result) {
+        final int sum = getSum();
+        if (sum == 0) {
+            return 0;
+        }
+        final int count = result == Result.UNKNOWN ? getRealUnknown() : getCount(result);
+        return ((double) count) / ((double) sum);
+    }
+
+    /**
+     * Collects statistic numbers afo by afo.
+     */
+    public static final class Builder {
+
+        private final int[] counts = new int[Result.values().length];
+        private int deletedUnknown;
+        private int testcases;
+
+        private Builder() {
+        }
+
+        /**
+         * adds given afo to the statistics. Afos without result are ignored.
+         *
+         * @param afo afo with result and test results already merged
+         * @return this builder
+         */
+        public Builder add(final AfoData afo) {
+            return add(afo, afo.getResults() == null ? 0 : afo.getResults().size());
+        }
+
+        /**
+         * adds given afo with the number of its test results kept outside of the afo, e.g. in a {@link ResultStore}, to
+         * the statistics. Afos without result are ignored.
+         *
+         * @param afo       afo with result already merged
+         * @param testcases number of test results of the afo
+         * @return this builder
+         */
+        public Builder add(final AfoData afo, final int testcases) {
+            if (afo.getStatus() == null) {
+                return this;
+            }
+            counts[afo.getStatus().ordinal()]++;
+            if (afo.getStatus() == Result.UNKNOWN && afo.getAfoStatus() == AfoStatus.DELETED) {
+                deletedUnknown++;
+            }
+            this.testcases += testcases;
+            return this;
+        }
+
+        public AfoStatistics build() {
+            return new AfoStatistics(counts, deletedUnknown, testcases);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+/**
+ * Defines how the system out and system err output of JUnit test cases is captured by the result parsers.
+ */
+public enum CapturePolicy {
+    /**
+     * output is skipped.
+     */
+    NONE,
+    /**
+     * only the first characters of the output up to the capture limit are kept.
+     */
+    HEAD,
+    /**
+     * only the last characters of the output up to the capture limit are kept.
+     */
+    TAIL,
+    /**
+     * the complete output is kept in memory.
+     */
+    FULL,
+    /**
+     * only a reference to the output in the result file is kept, the text is read from the file on access.
+     */
+    LAZY
+}
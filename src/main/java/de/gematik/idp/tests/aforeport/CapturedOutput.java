@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import javax.xml.stream.XMLStreamException;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * System out or system err output of a test case as captured according to the {@link CapturePolicy}. Either holds
+ * the (possibly truncated) text or the byte range of the content of the output element in the JUnit result file.
+ * Lazily captured output is read from just that range on each call to {@link #getText()}, so it never occupies heap
+ * between accesses.
+ */
+@Slf4j
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CapturedOutput {
+
+    /**
+     * marker added at the cut off end of truncated output.
+     */
+    static final String TRUNCATED_MARKER = "[...]";
+    /**
+     * default number of characters kept for {@link CapturePolicy#HEAD} and {@link CapturePolicy#TAIL}.
+     */
+    static final int DEFAULT_LIMIT = 64 * 1024;
+
+    @Getter(AccessLevel.NONE)
+    private final String text;
+    /**
+     * absolute path of the result file for lazily captured output.
+     */
+    private final String file;
+    /**
+     * byte offset of the first byte of the element content in the result file.
+     */
+    private final long start;
+    /**
+     * byte offset following the last byte of the element content in the result file.
+     */
+    private final long end;
+    /**
+     * character encoding of the result file.
+     */
+    private final String encoding;
+
+    /**
+     * @param text text of the output
+     * @return captured output holding the given text
+     */
+    public static CapturedOutput of(final String text) {
+        return new CapturedOutput(text, null, -1, -1, null);
+    }
+
+    /**
+     * @param file     JUnit result file
+     * @param start    byte offset of the element content in the result file
+     * @param end      byte offset following the element content in the result file
+     * @param encoding character encoding of the result file
+     * @return captured output referencing the content of an output element in the result file
+     */
+    public static CapturedOutput lazy(final File file, final long start, final long end, final String encoding) {
+        return new CapturedOutput(null, file.getAbsolutePath(), start, end, encoding);
+    }
+
+    /**
+     * captures the already read text of an output element according to the given policy.
+     *
+     * @param text     text of the output element
+     * @param policy   capture policy, must not be {@link CapturePolicy#LAZY}
+     * @param limit    maximum number of characters to keep for {@link CapturePolicy#HEAD} and {@link
+     *                 CapturePolicy#TAIL}
+     * @return captured output or null for {@link CapturePolicy#NONE}
+     */
+    static CapturedOutput capture(final CharSequence text, final CapturePolicy policy, final int limit) {
+        if (policy == CapturePolicy.NONE) {
+            return null;
+        }
+        return of(truncate(text, policy, limit));
+    }
+
+    /**
+     * @return true if the output is read from the result file on access
+     */
+    public boolean isLazy() {
+        return file != null;
+    }
+
+    /**
+     * @return text of the output, for lazily captured output read from the result file. Null if the result file can
+     * no longer be read.
+     */
+    public String getText() {
+        if (!isLazy()) {
+            return text;
+        }
+        try {
+            return AfoJUnitStaxTestResultParser.readContent(readRange(), encoding);
+        } catch (final IOException | XMLStreamException | RuntimeException e) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Failure while reading output at bytes %d to %d of result file %s",
+                    start, end, file), e);
+            }
+            return null;
+        }
+    }
+
+    private byte[] readRange() throws IOException {
+        final ByteBuffer content = ByteBuffer.allocate(Math.toIntExact(end - start));
+        try (final FileChannel channel = FileChannel.open(new File(file).toPath(), StandardOpenOption.READ)) {
+            while (content.hasRemaining()) {
+                if (channel.read(content, start + content.position()) < 0) {
+                    throw new IOException("Result file is shorter than expected");
+                }
+            }
+        }
+        return content.array();
+    }
+
+    private static String truncate(final CharSequence text, final CapturePolicy policy, final int limit) {
+        if (text.length() <= limit || policy == CapturePolicy.FULL) {
+            return text.toString();
+        }
+        if (policy == CapturePolicy.HEAD) {
+            return text.subSequence(0, limit) + TRUNCATED_MARKER;
+        }
+        return TRUNCATED_MARKER + text.subSequence(text.length() - limit, text.length());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>Input layer shared by all parsers, reading source, feature and result files with as few system calls and copies
+ * as possible.
+ * <p>
+ * Small files are read with a single read call into a buffer of their exact size, larger files are memory mapped so
+ * that their content is paged in by the operating system without being copied to the heap. Parsers get {@link
+ * InputStream} or {@link Reader} views on these buffers instead of reading the file again. Text is decoded from UTF-8
+ * chunk by chunk while the parser reads it, so the decoded text of a file is never held on the heap as a whole.
+ * Files of 2 GB or more can not be mapped into a single buffer and are streamed from the file instead.</p>
+ */
+final class FileContent {
+
+    /**
+     * files of at least this size are memory mapped, mapping smaller files costs more than reading them.
+     */
+    static final int MAP_THRESHOLD = 256 * 1024;
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private FileContent() {
+    }
+
+    /**
+     * @param file file to read
+     * @return read only buffer with the complete content of the file, positioned at its start
+     * @throws IOException if the file can not be read or is too large for a single buffer, see {@link
+     *                     #stream(File)}
+     */
+    static ByteBuffer bytes(final File file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + file.getAbsolutePath() + " of " + size + " bytes is too large for a "
+                    + "single buffer");
+            }
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(MapMode.READ_ONLY, 0, size);
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) {
+                read = channel.read(buffer);
+            }
+            buffer.flip();
+            return buffer.asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * @param file file to read
+     * @return input stream on the content of the file as returned by {@link #bytes(File)}, for files too large for a
+     * single buffer a buffered stream reading the file
+     * @throws IOException if the file can not be read
+     */
+    static InputStream stream(final File file) throws IOException {
+        if (file.length() > Integer.MAX_VALUE) {
+            return new BufferedInputStream(Files.newInputStream(file.toPath()), MAP_THRESHOLD);
+        }
+        return stream(bytes(file));
+    }
+
+    /**
+     * @param bytes bytes to read, the position of the given buffer is not changed
+     * @return input stream on given bytes, not copying them
+     */
+    static InputStream stream(final ByteBuffer bytes) {
+        return new ByteBufferInputStream(bytes.duplicate());
+    }
+
+    /**
+     * @param file UTF-8 encoded text file to read
+     * @return reader decoding the content of the file while it is read, without byte order mark
+     * @throws IOException if the file can not be read
+     */
+    static Reader reader(final File file) throws IOException {
+        if (file.length() <= Integer.MAX_VALUE) {
+            return reader(bytes(file));
+        }
+        final InputStream in = stream(file);
+        in.mark(UTF8_BOM.length);
+        final byte[] start = in.readNBytes(UTF8_BOM.length);
+        if (!Arrays.equals(start, UTF8_BOM)) {
+            in.reset();
+        }
+        return new InputStreamReader(in, decoder());
+    }
+
+    /**
+     * @param bytes UTF-8 encoded text, the position of the given buffer is not changed
+     * @return reader decoding given bytes while they are read, without byte order mark
+     */
+    static Reader reader(final ByteBuffer bytes) {
+        final ByteBuffer in = bytes.duplicate();
+        if (in.remaining() >= UTF8_BOM.length && in.get(in.position()) == UTF8_BOM[0]
+            && in.get(in.position() + 1) == UTF8_BOM[1] && in.get(in.position() + 2) == UTF8_BOM[2]) {
+            in.position(in.position() + UTF8_BOM.length);
+        }
+        return new InputStreamReader(new ByteBufferInputStream(in), decoder());
+    }
+
+    /**
+     * @return UTF-8 decoder replacing malformed input, as the readers used before did
+     */
+    private static CharsetDecoder decoder() {
+        return StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
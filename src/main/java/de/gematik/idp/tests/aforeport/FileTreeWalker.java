@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>Walks a folder tree lazily and streams the matching files, shared by all test and result parsers.
+ * <p>
+ * Files are returned in the order of a depth first walk visiting the entries of each folder in sorted order, so the
+ * order of the files never depends on the file system or on the number of threads. Each folder is listed with {@link
+ * Files#walkFileTree} limited to its own entries when the stream reaches it, so only the sorted entries of the folders
+ * on the current path are held in memory and the first files are returned before the rest of the tree is listed.
+ * <p>
+ * Files are matched against glob include patterns, files and folders against exclude patterns. Patterns without a /
+ * are matched against the name of the entry, others against its path relative to the walked root folder. Symbolic
+ * links are followed, links pointing to one of their parent folders are skipped instead of walking the loop forever.
+ * <p>
+ * {@link #parse(Stream, Function, int, String, Consumer)} parses the streamed files concurrently with a bounded number
+ * of results held in memory, while the calling thread walks on.</p>
+ */
+@Slf4j
+final class FileTreeWalker {
+
+    /**
+     * folders not containing test sources, skipped by the test source parsers unless configured otherwise.
+     */
+    static final List<String> DEFAULT_EXCLUDES = List.of("target", "node_modules", ".git");
+
+    /**
+     * number of files parsed ahead of the consumer per thread, limits the number of parse results held in memory.
+     */
+    private static final int PARSE_AHEAD = 2;
+
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    private final List<String> excludePatterns;
+    private final int maxDepth;
+    private final boolean followLinks;
+
+    private FileTreeWalker(final List<PathMatcher> includes, final List<String> excludePatterns, final int maxDepth,
+        final boolean followLinks) {
+        this.includes = includes;
+        this.excludePatterns = excludePatterns;
+        this.excludes = excludePatterns.stream().map(FileTreeWalker::toMatcher).collect(Collectors.toList());
+        this.maxDepth = maxDepth;
+        this.followLinks = followLinks;
+    }
+
+    /**
+     * @param includes glob patterns of the files to return, e.g. *.java, all files are returned if none is given
+     * @return walker of unlimited depth following symbolic links and excluding nothing
+     */
+    static FileTreeWalker including(final String... includes) {
+        return new FileTreeWalker(Stream.of(includes).map(FileTreeWalker::toMatcher).collect(Collectors.toList()),
+            List.of(), Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * @param patterns glob patterns of files and folders to skip, e.g. target
+     * @return copy of this walker with given exclude patterns
+     */
+    FileTreeWalker excluding(final Collection<String> patterns) {
+        return new FileTreeWalker(includes, List.copyOf(patterns), maxDepth, followLinks);
+    }
+
+    /**
+     * @param depth maximum depth of the returned files, 1 only returns the files of the root folder
+     * @return copy of this walker with given maximum depth
+     */
+    FileTreeWalker maxDepth(final int depth) {
+        return new FileTreeWalker(includes, excludePatterns, depth, followLinks);
+    }
+
+    /**
+     * @param follow whether to follow symbolic links to files and folders
+     * @return copy of this walker with given link handling
+     */
+    FileTreeWalker followLinks(final boolean follow) {
+        return new FileTreeWalker(includes, excludePatterns, maxDepth, follow);
+    }
+
+    /**
+     * lazily walks given folder on the thread consuming the stream.
+     *
+     * @param rootDir folder to walk
+     * @return stream of the matching files in sorted depth first order, empty if the folder is invalid
+     * @throws AfoReporterException if the root folder cannot be read
+     */
+    Stream<File> walk(final File rootDir) {
+        if (rootDir == null || !Files.isDirectory(rootDir.toPath())) {
+            log.warn("Invalid root dir " + (rootDir == null ? "NULL" : rootDir.getAbsolutePath()));
+            return Stream.empty();
+        }
+        final Iterator<Path> files = new SortedWalk(rootDir.toPath());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(files, Spliterator.ORDERED
+            | Spliterator.NONNULL), false).map(Path::toFile);
+    }
+
+    /**
+     * <p>parses the given files concurrently and hands the parse results to the consumer on the calling thread in the
+     * order of the files, so that the outcome does not depend on the number of threads.
+     * <p>
+     * Files are taken from the stream only as fast as they are parsed, so parsing of a lazily walked tree starts
+     * before the walk finishes and only a few parse results are held in memory at any time. If the calling thread is
+     * interrupted, parsing stops and all pending files are cancelled.</p>
+     *
+     * @param files    files to parse
+     * @param parser   parses a single file, called concurrently if more than one thread is used
+     * @param threads  number of threads, 1 parses sequentially on the calling thread, 0 uses all available processors
+     * @param what     description of the parsed files for error messages, e.g. "feature files"
+     * @param consumer consumer of the parse results
+     * @param <T>      type of the parse results
+     * @throws AfoReporterException if parsing is interrupted or fails
+     */
+    static <T> void parse(final Stream<File> files, final Function<File, T> parser, final int threads,
+        final String what, final Consumer<T> consumer) {
+        final int nThreads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+        if (nThreads == 1) {
+            files.forEach(f -> {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new AfoReporterException("Parsing of " + what + " interrupted");
+                }
+                consumer.accept(parser.apply(f));
+            });
+            return;
+        }
+        final ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+        try {
+            final Deque<Future<T>> pending = new ArrayDeque<>();
+            final Iterator<File> it = files.iterator();
+            while (it.hasNext() || !pending.isEmpty()) {
+                while (pending.size() < nThreads * PARSE_AHEAD && it.hasNext()) {
+                    final File f = it.next();
+                    pending.add(pool.submit(() -> parser.apply(f)));
+                }
+                consumer.accept(pending.poll().get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AfoReporterException("Parsing of " + what + " interrupted", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AfoReporterException("Failure while parsing " + what, e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static PathMatcher toMatcher(final String glob) {
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        if (glob.contains("/")) {
+            return matcher;
+        }
+        return path -> path.getFileName() != null && matcher.matches(path.getFileName());
+    }
+
+    private boolean isIncluded(final Path relative) {
+        return includes.isEmpty() || includes.stream().anyMatch(m -> m.matches(relative));
+    }
+
+    private boolean isExcluded(final Path relative) {
+        return excludes.stream().anyMatch(m -> m.matches(relative));
+    }
+
+    /**
+     * Depth first walk holding the sorted entries not visited yet of each folder on the current path. A folder is
+     * listed when the walk enters it.
+     */
+    private final class SortedWalk implements Iterator<Path> {
+
+        private final Path root;
+        private final Set<FileVisitOption> options;
+        /**
+         * entries left to visit per open folder, the innermost folder last.
+         */
+        private final Deque<Deque<Entry>> levels = new ArrayDeque<>();
+        /**
+         * file keys of the open folders, to detect links pointing to one of their parent folders.
+         */
+        private final Deque<Object> ancestors = new ArrayDeque<>();
+        private Path next;
+
+        SortedWalk(final Path root) {
+            this.root = root;
+            options = followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
+            try {
+                final BasicFileAttributes attrs = followLinks
+                    ? Files.readAttributes(root, BasicFileAttributes.class)
+                    : Files.readAttributes(root, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                open(new Entry(root, attrs));
+            } catch (final IOException e) {
+                throw new AfoReporterException("Failure while walking " + root, e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Path next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Path file = next;
+            next = null;
+            return file;
+        }
+
+        private Path advance() {
+            while (!levels.isEmpty()) {
+                final Deque<Entry> entries = levels.getLast();
+                if (entries.isEmpty()) {
+                    levels.removeLast();
+                    ancestors.removeLast();
+                    continue;
+                }
+                final Entry entry = entries.removeFirst();
+                final Path relative = root.relativize(entry.path);
+                if (entry.attrs.isDirectory()) {
+                    if (levels.size() < maxDepth && !isExcluded(relative)) {
+                        open(entry);
+                    }
+                } else if (entry.attrs.isRegularFile() && !isExcluded(relative) && isIncluded(relative)) {
+                    return entry.path;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * lists the entries of given folder sorted by name, unless it links to one of its parent folders.
+         */
+        private void open(final Entry folder) {
+            final Object key = folder.attrs.fileKey() != null ? folder.attrs.fileKey() : folder.path.toAbsolutePath();
+            if (ancestors.contains(key)) {
+                log.warn("Skipping " + folder.path + " as it links to one of its parent folders");
+                return;
+            }
+            final List<Entry> entries = new ArrayList<>();
+            try {
+                Files.walkFileTree(folder.path, options, 1, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                        entries.add(new Entry(file, attrs));
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+                        log.warn("Unable to read " + file, e);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (final IOException e) {
+                throw new AfoReporterException("Failure while walking " + folder.path, e);
+            }
+            entries.sort(Comparator.comparing(e -> e.path.getFileName()));
+            levels.addLast(new ArrayDeque<>(entries));
+            ancestors.addLast(key);
+        }
+    }
+
+    /**
+     * folder entry with the attributes read while listing its folder.
+     */
+    private static final class Entry {
+
+        private final Path path;
+        private final BasicFileAttributes attrs;
+
+        Entry(final Path path, final BasicFileAttributes attrs) {
+            this.path = path;
+            this.attrs = attrs;
+        }
+    }
+}
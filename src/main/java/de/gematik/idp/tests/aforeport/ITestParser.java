@@ -26,7 +26,7 @@ public interface ITestParser {
 
     Map<String, List<Testcase>> getParsedTestcasesPerAfo();
 
-    Map<String, Testcase> getParsedTestcases();
+    Map<TestKey, Testcase> getParsedTestcases();
 
-    Map<String, Testcase> getTestcasesWithoutAfo();
+    Map<TestKey, Testcase> getTestcasesWithoutAfo();
 }
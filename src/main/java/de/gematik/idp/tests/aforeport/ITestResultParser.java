@@ -17,9 +17,57 @@
 package de.gematik.idp.tests.aforeport;
 
 import java.io.File;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ITestResultParser {
 
-    void parseDirectoryForResults(Map<String, TestResult> results, File rootdir);
+    /**
+     * @param rootdir folder to look for result files in, sub folders are not searched
+     * @return result files of the folder sorted by name, empty list if the folder is invalid
+     */
+    List<File> listResultFiles(File rootdir);
+
+    /**
+     * @param file result file
+     * @return test results read from the file, in the order they appear in the file
+     */
+    List<TestResult> parseResultFile(File file);
+
+    default void parseDirectoryForResults(final Map<TestKey, TestResult> results, final File rootdir) {
+        parseDirectoriesForResults(results, List.of(rootdir), 1);
+    }
+
+    /**
+     * parses the result files of all given folders concurrently and merges the test results into the given map. The
+     * merge happens on the calling thread in the order of the folders and of the sorted files per folder, so if the
+     * same test case is contained in multiple files, the one in the last file always wins, regardless of the number of
+     * threads. If the calling thread is interrupted, parsing stops and all pending files are cancelled.
+     *
+     * @param results  map of test results per test key to fill
+     * @param rootdirs folders to parse for result files
+     * @param threads  number of threads to parse the files with, 1 parses sequentially on the calling thread, 0 uses
+     *                 all available processors
+     */
+    default void parseDirectoriesForResults(final Map<TestKey, TestResult> results, final List<File> rootdirs,
+        final int threads) {
+        parseDirectoriesForResults(tr -> results.put(tr.getKey(), tr), rootdirs, threads);
+    }
+
+    /**
+     * parses the result files of all given folders concurrently like {@link #parseDirectoriesForResults(Map, List,
+     * int)}, but hands the test results to the given consumer on the calling thread instead of collecting them, so
+     * that the parsed test result objects need not be retained.
+     *
+     * @param results  consumer of the test results, called in file order
+     * @param rootdirs folders to parse for result files
+     * @param threads  number of threads to parse the files with, 1 parses sequentially on the calling thread, 0 uses
+     *                 all available processors
+     */
+    default void parseDirectoriesForResults(final Consumer<TestResult> results, final List<File> rootdirs,
+        final int threads) {
+        FileTreeWalker.parse(rootdirs.stream().flatMap(dir -> listResultFiles(dir).stream()), this::parseResultFile,
+            threads, "result files", parsed -> parsed.forEach(results));
+    }
 }
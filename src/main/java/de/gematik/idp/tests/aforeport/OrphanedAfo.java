@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Afo id referenced by test cases but not contained in the requirements file, as written to the orphans JSON file.
+ */
+@Getter
+@AllArgsConstructor
+public class OrphanedAfo {
+
+    private final String id;
+    /**
+     * "clazz:method" keys of the test cases referencing the afo id.
+     */
+    private final List<String> testcases;
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Getter;
+
+/**
+ * Locates the system-out and system-err elements of the test cases in a JUnit XML result file by their byte offsets,
+ * so that lazily captured output can later be read from just that range of the file.
+ * <p>
+ * XML stream readers only report the position they have read ahead to, not the position of the current element, so
+ * the file is scanned byte by byte with a minimal lexer instead. It honors comments, CDATA sections, processing
+ * instructions, the doctype and quoted attribute values and counts the test cases the same way as the JUnit
+ * parsers do, i.e. only testcase elements being direct children of a testsuite element. As the lexer works on bytes,
+ * only files in an ASCII compatible encoding like UTF-8 or ISO-8859-1 can be scanned.
+ */
+final class OutputLocator {
+
+    private static final Pattern ENCODING = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int length;
+    private int index;
+    /**
+     * byte offset of the next byte to read.
+     */
+    private long position;
+
+    private final Deque<String> elements = new ArrayDeque<>();
+    /**
+     * number of open elements including the current test case, -1 if not inside a counted test case.
+     */
+    private int testcaseDepth = -1;
+    private final List<Outputs> testcases = new ArrayList<>();
+    private String encoding = "UTF-8";
+    private long contentStart;
+
+    private OutputLocator(final File file, final InputStream in) {
+        this.file = file;
+        this.in = in;
+    }
+
+    /**
+     * scans the given result file. In case the file is broken, e.g. truncated by an aborted test run, the output of
+     * all test cases scanned up to the failure is returned.
+     *
+     * @param file JUnit XML result file
+     * @return lazily captured output per test case in document order, empty if the file is not ASCII compatible
+     * @throws IOException if reading the file fails
+     */
+    static List<Outputs> locate(final File file) throws IOException {
+        try (final InputStream in = FileContent.stream(file)) {
+            final OutputLocator locator = new OutputLocator(file, in);
+            if (!locator.scan()) {
+                return List.of();
+            }
+            return locator.testcases;
+        }
+    }
+
+    /**
+     * @return false if the file starts with a byte order mark or characters of a multi byte encoding like UTF-16
+     */
+    private boolean scan() throws IOException {
+        int b = read();
+        if (b == 0 || b == 0xFE || b == 0xFF) {
+            return false;
+        }
+        while (b != -1) {
+            if (b == '<') {
+                markup(position - 1);
+            }
+            b = read();
+        }
+        return true;
+    }
+
+    private void markup(final long tagStart) throws IOException {
+        final int b = read();
+        if (b == '!') {
+            declaration();
+        } else if (b == '?') {
+            processingInstruction();
+        } else if (b == '/') {
+            endTag(tagStart);
+        } else if (b != -1) {
+            startTag(b);
+        }
+    }
+
+    private void declaration() throws IOException {
+        final int b = read();
+        if (b == '-') {
+            skipTo("-->");
+        } else if (b == '[') {
+            skipTo("]]>");
+        } else {
+            // doctype, possibly containing an internal subset in brackets
+            int depth = 0;
+            int c = b;
+            while (c != -1 && (c != '>' || depth > 0)) {
+                if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                }
+                c = read();
+            }
+        }
+    }
+
+    private void processingInstruction() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        int b;
+        while ((b = read()) != -1) {
+            text.append((char) b);
+            if (b == '>' && text.length() > 1 && text.charAt(text.length() - 2) == '?') {
+                break;
+            }
+        }
+        if (text.toString().startsWith("xml ")) {
+            final Matcher m = ENCODING.matcher(text);
+            if (m.find()) {
+                encoding = m.group(1);
+            }
+        }
+    }
+
+    private void endTag(final long tagStart) throws IOException {
+        final StringBuilder name = new StringBuilder();
+        int b;
+        while ((b = read()) != -1 && b != '>') {
+            if (!Character.isWhitespace(b)) {
+                name.append((char) b);
+            }
+        }
+        if (elements.isEmpty()) {
+            return;
+        }
+        elements.pop();
+        if (elements.size() == testcaseDepth && isOutput(name)) {
+            current().set(name.toString(), CapturedOutput.lazy(file, contentStart, tagStart, encoding));
+        } else if (elements.size() < testcaseDepth) {
+            testcaseDepth = -1;
+        }
+    }
+
+    private void startTag(final int first) throws IOException {
+        final StringBuilder name = new StringBuilder();
+        int b = first;
+        while (b != -1 && b != '>' && b != '/' && !Character.isWhitespace(b)) {
+            name.append((char) b);
+            b = read();
+        }
+        int last = b;
+        while (b != -1 && b != '>') {
+            if (b == '"' || b == '\'') {
+                skipTo(String.valueOf((char) b));
+            } else if (!Character.isWhitespace(b)) {
+                last = b;
+            }
+            b = read();
+        }
+        if (b == -1) {
+            return;
+        }
+        final boolean empty = last == '/';
+        if (name.toString().equals("testcase") && "testsuite".equals(elements.peek())) {
+            testcases.add(new Outputs());
+            testcaseDepth = elements.size() + 1;
+        } else if (elements.size() == testcaseDepth && isOutput(name)) {
+            contentStart = position;
+            if (empty) {
+                current().set(name.toString(), CapturedOutput.lazy(file, position, position, encoding));
+            }
+        }
+        if (!empty) {
+            elements.push(name.toString());
+        } else if (elements.size() < testcaseDepth) {
+            testcaseDepth = -1;
+        }
+    }
+
+    private static boolean isOutput(final CharSequence name) {
+        final String s = name.toString();
+        return s.equals("system-out") || s.equals("system-err");
+    }
+
+    private Outputs current() {
+        return testcases.get(testcases.size() - 1);
+    }
+
+    /**
+     * skips all bytes up to and including the given ASCII terminator.
+     */
+    private void skipTo(final String terminator) throws IOException {
+        int matched = 0;
+        int b;
+        while (matched < terminator.length() && (b = read()) != -1) {
+            if (b == terminator.charAt(matched)) {
+                matched++;
+            } else {
+                matched = b == terminator.charAt(0) ? 1 : 0;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (index == length) {
+            length = in.read(buffer);
+            index = 0;
+            if (length <= 0) {
+                length = 0;
+                return -1;
+            }
+        }
+        position++;
+        return buffer[index++] & 0xFF;
+    }
+
+    /**
+     * Lazily captured system-out and system-err output of a test case, the last element wins if a test case contains
+     * several ones.
+     */
+    @Getter
+    static final class Outputs {
+
+        private CapturedOutput systemOut;
+        private CapturedOutput systemErr;
+
+        private void set(final String element, final CapturedOutput output) {
+            if (element.equals("system-out")) {
+                systemOut = output;
+            } else {
+                systemErr = output;
+            }
+        }
+    }
+}
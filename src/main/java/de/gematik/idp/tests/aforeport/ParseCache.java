@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>Persistent cache of the records extracted from input files (test sources, feature files, test result files).
+ * <p>
+ * Each entry is keyed by the absolute path of the input file and stores its size and last modification time. If
+ * both are unchanged on the next run the records are loaded from the cache file instead of parsing the input file
+ * again. The cache file is a compact binary snapshot stamped with the reporter version, so that all entries are
+ * discarded after an upgrade of the AfoReporter.
+ * <p>
+ * Only entries of files looked up in the current run are written back on {@link #save()}, thus entries of deleted
+ * files are dropped automatically. The cache may be used concurrently by multiple parser threads.</p>
+ *
+ * @param <T> type of the records extracted from a single input file
+ */
+@Slf4j
+public class ParseCache<T> {
+
+    /**
+     * codec for parsed test cases of the java and cucumber test parsers.
+     */
+    public static final Codec<ParsedTestcase> PARSED_TESTCASE_CODEC = new Codec<>() {
+        @Override
+        public void write(final DataOutputStream out, final ParsedTestcase ptc) throws IOException {
+            writeTestcase(out, ptc.getTestcase());
+            out.writeInt(ptc.getAfoIds().size());
+            for (final String id : ptc.getAfoIds()) {
+                writeString(out, id);
+            }
+        }
+
+        @Override
+        public ParsedTestcase read(final DataInputStream in) throws IOException {
+            final Testcase tc = readTestcase(in, new Testcase());
+            final int num = in.readInt();
+            final List<String> afoIds = new ArrayList<>(num);
+            for (int i = 0; i < num; i++) {
+                afoIds.add(readString(in));
+            }
+            return new ParsedTestcase(tc, afoIds);
+        }
+    };
+
+    /**
+     * codec for test results of the JUnit and Serenity result parsers.
+     */
+    public static final Codec<TestResult> TEST_RESULT_CODEC = new Codec<>() {
+        @Override
+        public void write(final DataOutputStream out, final TestResult tr) throws IOException {
+            writeTestcase(out, tr);
+            writeString(out, tr.getSuite());
+            out.writeByte(tr.getStatus() == null ? -1 : tr.getStatus().ordinal());
+            writeString(out, tr.getErrmessage());
+            writeString(out, tr.getErrtype());
+            writeString(out, tr.getErrdetails());
+            writeOutput(out, tr.getErrsysout());
+            writeOutput(out, tr.getErrsyserr());
+        }
+
+        @Override
+        public TestResult read(final DataInputStream in) throws IOException {
+            final TestResult tr = (TestResult) readTestcase(in, new TestResult());
+            tr.setSuite(readString(in));
+            final byte status = in.readByte();
+            tr.setStatus(status == -1 ? null : Result.values()[status]);
+            tr.setErrmessage(readString(in));
+            tr.setErrtype(readString(in));
+            tr.setErrdetails(readString(in));
+            tr.setErrsysout(readOutput(in));
+            tr.setErrsyserr(readOutput(in));
+            return tr;
+        }
+    };
+
+    private static final int MAGIC = 0x41464f43;
+    /**
+     * version of the binary layout, to be increased whenever a codec or the entry layout changes.
+     */
+    private static final int FORMAT_VERSION = 3;
+    /**
+     * files modified less than this amount of milliseconds before being parsed are not cached, as a further
+     * modification within the granularity of the file system time stamps could not be detected.
+     */
+    private static final long RACY_WINDOW_MS = 2000;
+
+    private final File cacheFile;
+    private final String version;
+    private final Codec<T> codec;
+    private final Map<String, Entry<T>> loaded = new ConcurrentHashMap<>();
+    private final Map<String, Entry<T>> current = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private ParseCache(final File cacheFile, final String version, final Codec<T> codec) {
+        this.cacheFile = cacheFile;
+        this.version = version;
+        this.codec = codec;
+    }
+
+    /**
+     * @param <T> type of records
+     * @return a cache instance which never caches anything and always parses the input files
+     */
+    public static <T> ParseCache<T> disabled() {
+        return new ParseCache<>(null, null, null);
+    }
+
+    /**
+     * opens the cache file with given name in the given folder, stamped with the current reporter version.
+     *
+     * @param folder folder to store the cache file in, will be created if it does not exist
+     * @param name   name of the cache file
+     * @param codec  codec to read and write the records
+     * @param <T>    type of records
+     * @return cache instance with all valid entries of the cache file loaded
+     */
+    public static <T> ParseCache<T> open(final File folder, final String name, final Codec<T> codec) {
+        return open(folder, name, codec, AfoReporter.getReporterVersion());
+    }
+
+    static <T> ParseCache<T> open(final File folder, final String name, final Codec<T> codec, final String version) {
+        final ParseCache<T> cache = new ParseCache<>(new File(folder, name), version, codec);
+        cache.load();
+        return cache;
+    }
+
+    private void load() {
+        if (!cacheFile.exists()) {
+            return;
+        }
+        try (final DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !version.equals(in.readUTF())) {
+                log.info("    discarding outdated parse cache " + cacheFile.getAbsolutePath());
+                return;
+            }
+            final int num = in.readInt();
+            for (int i = 0; i < num; i++) {
+                final String path = in.readUTF();
+                final long size = in.readLong();
+                final long lastModified = in.readLong();
+                final int numRecords = in.readInt();
+                final List<T> records = new ArrayList<>(numRecords);
+                for (int j = 0; j < numRecords; j++) {
+                    records.add(codec.read(in));
+                }
+                loaded.put(path, new Entry<>(size, lastModified, records));
+            }
+        } catch (final IOException | RuntimeException e) {
+            log.warn("    discarding unreadable parse cache " + cacheFile.getAbsolutePath(), e);
+            loaded.clear();
+        }
+    }
+
+    /**
+     * returns the records of the given file from the cache if the file is unchanged, else parses the file with the
+     * given parser function and memorizes the records.
+     *
+     * @param file   input file
+     * @param parser function extracting the records from the file
+     * @return list of records of the file
+     */
+    public List<T> get(final File file, final Function<File, List<T>> parser) {
+        if (cacheFile == null) {
+            return parser.apply(file);
+        }
+        final String key = file.getAbsolutePath();
+        // read meta data before parsing, so that modifications while parsing are detected on the next run
+        final long size = file.length();
+        final long lastModified = file.lastModified();
+        final Entry<T> entry = loaded.get(key);
+        final List<T> records;
+        if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+            hits.incrementAndGet();
+            records = entry.records;
+        } else {
+            misses.incrementAndGet();
+            records = parser.apply(file);
+        }
+        if (System.currentTimeMillis() - lastModified >= RACY_WINDOW_MS) {
+            current.put(key, new Entry<>(size, lastModified, records));
+        }
+        return records;
+    }
+
+    /**
+     * writes all entries looked up in this run to the cache file. Failures are logged but not propagated, as the
+     * cache is an optimization only.
+     */
+    public void save() {
+        if (cacheFile == null) {
+            return;
+        }
+        if (log.isInfoEnabled()) {
+            log.info(String.format("    parse cache %s: %d hits, %d misses",
+                cacheFile.getName(), hits.get(), misses.get()));
+        }
+        Path tmp = null;
+        try {
+            final Path folder = cacheFile.getAbsoluteFile().getParentFile().toPath();
+            Files.createDirectories(folder);
+            tmp = Files.createTempFile(folder, cacheFile.getName(), ".tmp");
+            try (final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(version);
+                out.writeInt(current.size());
+                for (final Map.Entry<String, Entry<T>> e : current.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeLong(e.getValue().size);
+                    out.writeLong(e.getValue().lastModified);
+                    out.writeInt(e.getValue().records.size());
+                    for (final T rec : e.getValue().records) {
+                        codec.write(out, rec);
+                    }
+                }
+            }
+            try {
+                Files.move(tmp, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tmp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            log.warn("    unable to write parse cache " + cacheFile.getAbsolutePath(), e);
+            deleteQuietly(tmp);
+        }
+    }
+
+    private static void deleteQuietly(final Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (final IOException e) {
+                log.debug("unable to delete " + file, e);
+            }
+        }
+    }
+
+    private static void writeTestcase(final DataOutputStream out, final Testcase tc) throws IOException {
+        writeString(out, tc.getClazz());
+        writeString(out, tc.getMethod());
+        writeString(out, tc.getFeatureName());
+        writeString(out, tc.getScenarioName());
+        writeString(out, tc.getPath());
+    }
+
+    private static Testcase readTestcase(final DataInputStream in, final Testcase tc) throws IOException {
+        tc.setClazz(readString(in));
+        tc.setMethod(readString(in));
+        tc.setFeatureName(readString(in));
+        tc.setScenarioName(readString(in));
+        tc.setPath(readString(in));
+        return tc;
+    }
+
+    /**
+     * writes nullable string of arbitrary length (DataOutputStream.writeUTF is limited to 64KB).
+     */
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int len = in.readInt();
+        if (len == -1) {
+            return null;
+        }
+        final byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * writes nullable captured output, lazy references are stored as such without reading the referenced text.
+     */
+    private static void writeOutput(final DataOutputStream out, final CapturedOutput output) throws IOException {
+        if (output == null) {
+            out.writeByte(-1);
+        } else if (output.isLazy()) {
+            out.writeByte(1);
+            writeString(out, output.getFile());
+            out.writeLong(output.getStart());
+            out.writeLong(output.getEnd());
+            writeString(out, output.getEncoding());
+        } else {
+            out.writeByte(0);
+            writeString(out, output.getText());
+        }
+    }
+
+    private static CapturedOutput readOutput(final DataInputStream in) throws IOException {
+        final byte kind = in.readByte();
+        if (kind == -1) {
+            return null;
+        } else if (kind == 1) {
+            final String file = readString(in);
+            final long start = in.readLong();
+            final long end = in.readLong();
+            return CapturedOutput.lazy(new File(file), start, end, readString(in));
+        }
+        return CapturedOutput.of(readString(in));
+    }
+
+    /**
+     * Reads and writes a single record of the cache file.
+     *
+     * @param <T> type of record
+     */
+    public interface Codec<T> {
+
+        void write(DataOutputStream out, T record) throws IOException;
+
+        T read(DataInputStream in) throws IOException;
+    }
+
+    @AllArgsConstructor
+    private static class Entry<T> {
+
+        private final long size;
+        private final long lastModified;
+        private final List<T> records;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.gematik.gherkin.FeatureParser;
+import de.gematik.gherkin.model.Feature;
+import de.gematik.gherkin.model.GherkinStruct;
+import de.gematik.gherkin.model.Scenario;
+import de.gematik.gherkin.model.Tag;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * <p>Command exporting all scenarios of the feature files below the test root folders as Polarion test case work
+ * items for bulk import.
+ * <p>
+ * Feature files are parsed in parallel while the test roots are walked, but written in sorted depth first order, so
+ * the output does not depend on the number of threads. Each scenario is streamed to its shard file as soon as its
+ * feature is parsed, only the features currently being parsed are held in memory.</p>
+ */
+@Slf4j
+@Parameters(commandDescription = "Export all scenarios of the feature files as Polarion JSON")
+public class PolarionExporter {
+
+    public static final String COMMAND = "polarion";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * list of folders to parse for Cucumber feature files.
+     */
+    @Parameter(names = {"-testroot", "-tr"})
+    List<String> testRoot = Collections
+        .singletonList(Paths.get("..", "idp-global", "idp-server", "src", "test").toAbsolutePath().toString());
+    /**
+     * glob patterns of files and folders below the test roots not to export, patterns without / match the name only.
+     */
+    @Parameter(names = {"-exclude", "-ex"})
+    List<String> excludes = FileTreeWalker.DEFAULT_EXCLUDES;
+    /**
+     * folder to write the Polarion JSON files to.
+     */
+    @Parameter(names = {"-out", "-o"})
+    String outputFolder = Paths.get("target", "polarion").toAbsolutePath().toString();
+    /**
+     * how to split the exported scenarios into files.
+     */
+    @Parameter(names = {"-shard", "-s"})
+    PolarionSharding sharding = PolarionSharding.FEATURE;
+    /**
+     * number of threads used to parse the feature files. 0 uses all available processors.
+     */
+    @Parameter(names = {"-threads", "-th"})
+    int threads = 1;
+
+    private final FeatureParser featureParser = new FeatureParser();
+
+    /**
+     * parses all feature files and writes their scenarios to the output folder.
+     *
+     * @throws AfoReporterException in case there is any failure
+     */
+    void run() {
+        final int nThreads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+        final FileTreeWalker walker = FileTreeWalker.including("*.feature").excluding(excludes);
+        final Stream<File> files = testRoot.stream().flatMap(root -> walker.walk(new File(root)));
+        log.info("  exporting feature files to " + outputFolder + "...");
+        try (final ShardWriter shards = new ShardWriter(new File(outputFolder), sharding)) {
+            FileTreeWalker.parse(files, this::parseFeatureFile, nThreads, "feature files", feature -> {
+                try {
+                    shards.write(feature);
+                } catch (final IOException e) {
+                    throw new AfoReporterException("Unable to write Polarion JSON to " + outputFolder, e);
+                }
+            });
+            log.info("  exported " + shards.scenarioCount + " scenarios to " + shards.fileCount + " files");
+        } catch (final IOException e) {
+            throw new AfoReporterException("Unable to write Polarion JSON to " + outputFolder, e);
+        }
+    }
+
+    private Feature parseFeatureFile(final File f) {
+        try (final Reader reader = FileContent.reader(f)) {
+            return featureParser.parseFeature(reader, f.getAbsolutePath());
+        } catch (final IOException ioex) {
+            throw new AfoReporterException("Unable to parse " + f.getAbsolutePath(), ioex);
+        }
+    }
+
+    /**
+     * Writes scenarios to JSON array files in the output folder, keeping one generator open per shard until closed.
+     */
+    private static class ShardWriter implements Closeable {
+
+        private final File folder;
+        private final PolarionSharding sharding;
+        private final Map<String, JsonGenerator> generators = new LinkedHashMap<>();
+        private final Set<String> fileNames = new HashSet<>();
+        private int scenarioCount;
+        private int fileCount;
+
+        ShardWriter(final File folder, final PolarionSharding sharding) throws IOException {
+            FileUtils.forceMkdir(folder);
+            this.folder = folder;
+            this.sharding = sharding;
+        }
+
+        void write(final Feature feature) throws IOException {
+            if (sharding == PolarionSharding.FEATURE) {
+                final String name = new File(feature.getFileName()).getName().replaceFirst("\\.feature$", "");
+                try (final JsonGenerator gen = open(name)) {
+                    for (final GherkinStruct scenario : feature.getScenarios()) {
+                        writeScenario(gen, (Scenario) scenario);
+                    }
+                    gen.writeEndArray();
+                }
+                return;
+            }
+            for (final GherkinStruct struct : feature.getScenarios()) {
+                final Scenario scenario = (Scenario) struct;
+                writeScenario(generators.computeIfAbsent(getShardName(scenario), this::openUnchecked), scenario);
+            }
+        }
+
+        private String getShardName(final Scenario scenario) {
+            if (sharding == PolarionSharding.SINGLE) {
+                return "polarion";
+            }
+            final Tag product = scenario.getTag("@Product");
+            return product == null || product.getParameter() == null ? "unknown" : product.getParameter();
+        }
+
+        private void writeScenario(final JsonGenerator gen, final Scenario scenario) throws IOException {
+            scenario.writePolarionJSON(gen);
+            scenarioCount++;
+        }
+
+        /**
+         * opens a new shard file and starts its JSON array. Names already used in this export get a numeric suffix,
+         * e.g. for feature files with the same name in different folders.
+         *
+         * @param name shard name, characters not allowed in file names are replaced
+         * @return generator writing to the new file
+         * @throws IOException if the file can not be created
+         */
+        private JsonGenerator open(final String name) throws IOException {
+            final String base = name.replaceAll("[^\\w.-]", "_");
+            String fileName = base;
+            for (int i = 2; !fileNames.add(fileName); i++) {
+                fileName = base + "_" + i;
+            }
+            final JsonGenerator gen = JSON_FACTORY.createGenerator(
+                Files.newBufferedWriter(new File(folder, fileName + ".json").toPath(), StandardCharsets.UTF_8));
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartArray();
+            fileCount++;
+            return gen;
+        }
+
+        private JsonGenerator openUnchecked(final String name) {
+            try {
+                return open(name);
+            } catch (final IOException e) {
+                throw new AfoReporterException("Unable to create Polarion JSON file for " + name, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (final JsonGenerator gen : generators.values()) {
+                gen.writeEndArray();
+                gen.close();
+            }
+            generators.clear();
+        }
+    }
+}
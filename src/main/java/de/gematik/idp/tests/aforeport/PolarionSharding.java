@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+/**
+ * Defines how the scenarios exported by the {@link PolarionExporter} are split into files.
+ */
+public enum PolarionSharding {
+    /**
+     * all scenarios are written to a single file polarion.json.
+     */
+    SINGLE,
+    /**
+     * one file per feature file, named after the feature file.
+     */
+    FEATURE,
+    /**
+     * one file per product as given by the @Product tag, scenarios without product are written to unknown.json.
+     */
+    PRODUCT
+}
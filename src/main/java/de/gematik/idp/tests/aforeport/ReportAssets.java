@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * <p>Report templates with the inline styles, scripts and base64 images moved to separate asset files.
+ * <p>
+ * Inline <code>&lt;style&gt;</code> and <code>&lt;script&gt;</code> blocks without placeholders are replaced by
+ * references to asset files, as are <code>data:</code> URIs in <code>src</code> and <code>href</code> attributes.
+ * Blocks containing placeholders stay inline, as they are filled per report. Asset files are named by the hash of
+ * their content, so identical assets of several reports share the same file.</p>
+ */
+@Slf4j
+public class ReportAssets {
+
+    public static final String ASSETS_FOLDER = "assets";
+
+    private static final String COMMENT_START = "<!--";
+    private static final String COMMENT_END = "-->";
+    private static final String[][] BLOCKS = {
+        {"<style>", "</style>", "css"},
+        {"<script>", "</script>", "js"}
+    };
+    private static final String[] DATA_ATTRIBUTES = {"src=\"data:", "href=\"data:"};
+    private static final String BASE64 = ";base64,";
+
+    @Getter
+    private final String header;
+    @Getter
+    private final Template body;
+    /**
+     * asset contents per file name
+     */
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+    /**
+     * @param header header template
+     * @param body   body template source
+     */
+    public ReportAssets(final String header, final String body) {
+        this.header = externalize(header);
+        this.body = Template.compile(externalize(body));
+    }
+
+    /**
+     * @return asset contents per file name
+     */
+    public Map<String, byte[]> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    /**
+     * writes all asset files not yet existing to given folder. As the file names contain the content hash, existing
+     * files are not written again.
+     *
+     * @param assetsFolder folder to write the assets to
+     * @throws IOException if writing an asset fails
+     */
+    public void writeTo(final File assetsFolder) throws IOException {
+        FileUtils.forceMkdir(assetsFolder);
+        for (final Map.Entry<String, byte[]> asset : files.entrySet()) {
+            final File file = new File(assetsFolder, asset.getKey());
+            if (!file.exists()) {
+                FileUtils.writeByteArrayToFile(file, asset.getValue());
+            }
+        }
+        log.info("    " + files.size() + " assets available in " + assetsFolder.getAbsolutePath());
+    }
+
+    private String externalize(final String html) {
+        return externalizeDataUris(externalizeBlocks(html));
+    }
+
+    /**
+     * replaces all style and script blocks outside of HTML comments that contain no placeholders by references to
+     * asset files.
+     */
+    private String externalizeBlocks(final String html) {
+        final StringBuilder sb = new StringBuilder(html.length());
+        int pos = 0;
+        while (true) {
+            final int comment = html.indexOf(COMMENT_START, pos);
+            int blockStart = -1;
+            String[] block = null;
+            for (final String[] candidate : BLOCKS) {
+                final int idx = html.indexOf(candidate[0], pos);
+                if (idx != -1 && (blockStart == -1 || idx < blockStart)) {
+                    blockStart = idx;
+                    block = candidate;
+                }
+            }
+            if (comment != -1 && (blockStart == -1 || comment < blockStart)) {
+                final int commentEnd = html.indexOf(COMMENT_END, comment + COMMENT_START.length());
+                final int next = commentEnd == -1 ? html.length() : commentEnd + COMMENT_END.length();
+                sb.append(html, pos, next);
+                pos = next;
+                continue;
+            }
+            if (block == null) {
+                break;
+            }
+            final int contentStart = blockStart + block[0].length();
+            final int blockEnd = html.indexOf(block[1], contentStart);
+            if (blockEnd == -1) {
+                break;
+            }
+            final String content = html.substring(contentStart, blockEnd);
+            sb.append(html, pos, blockStart);
+            if (Template.compile(content).getSlotNames().isEmpty()) {
+                final String name = addAsset(block[2], content.getBytes(StandardCharsets.UTF_8));
+                if ("css".equals(block[2])) {
+                    sb.append("<link rel=\"stylesheet\" href=\"").append(ASSETS_FOLDER).append('/').append(name)
+                        .append("\">");
+                } else {
+                    sb.append("<script src=\"").append(ASSETS_FOLDER).append('/').append(name).append("\"></script>");
+                }
+            } else {
+                sb.append(html, blockStart, blockEnd + block[1].length());
+            }
+            pos = blockEnd + block[1].length();
+        }
+        sb.append(html, pos, html.length());
+        return sb.toString();
+    }
+
+    /**
+     * replaces base64 data URIs in src and href attributes by references to asset files.
+     */
+    private String externalizeDataUris(final String html) {
+        final StringBuilder sb = new StringBuilder(html.length());
+        int pos = 0;
+        while (true) {
+            int attrStart = -1;
+            String attr = null;
+            for (final String candidate : DATA_ATTRIBUTES) {
+                final int idx = html.indexOf(candidate, pos);
+                if (idx != -1 && (attrStart == -1 || idx < attrStart)) {
+                    attrStart = idx;
+                    attr = candidate;
+                }
+            }
+            if (attr == null) {
+                break;
+            }
+            final int uriStart = attrStart + attr.length();
+            final int uriEnd = html.indexOf('"', uriStart);
+            if (uriEnd == -1) {
+                break;
+            }
+            final String uri = html.substring(uriStart, uriEnd);
+            final int base64 = uri.indexOf(BASE64);
+            final String extension = base64 == -1 ? null : getExtension(uri.substring(0, base64));
+            final byte[] data = extension == null ? null : decode(uri.substring(base64 + BASE64.length()));
+            if (data == null) {
+                // no valid base64 data uri, keep as is
+                sb.append(html, pos, uriEnd);
+                pos = uriEnd;
+                continue;
+            }
+            sb.append(html, pos, uriStart - "data:".length())
+                .append(ASSETS_FOLDER).append('/').append(addAsset(extension, data));
+            pos = uriEnd;
+        }
+        sb.append(html, pos, html.length());
+        return sb.toString();
+    }
+
+    /**
+     * @param mimeType mime type of a data uri, e.g. image/png
+     * @return file extension for the mime type or null if it is no valid mime type
+     */
+    private static String getExtension(final String mimeType) {
+        final int slash = mimeType.indexOf('/');
+        if (slash == -1) {
+            return null;
+        }
+        String subtype = mimeType.substring(slash + 1);
+        if (subtype.startsWith("x-")) {
+            subtype = subtype.substring(2);
+        }
+        if (subtype.indexOf('+') != -1) {
+            subtype = subtype.substring(0, subtype.indexOf('+'));
+        }
+        if ("icon".equals(subtype)) {
+            return "ico";
+        }
+        return subtype.matches("[A-Za-z0-9]+") ? subtype.toLowerCase() : null;
+    }
+
+    private static byte[] decode(final String base64) {
+        try {
+            return Base64.getMimeDecoder().decode(base64);
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String addAsset(final String extension, final byte[] content) {
+        final String name = hash(content) + "." + extension;
+        files.putIfAbsent(name, content);
+        return name;
+    }
+
+    private static String hash(final byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            final StringBuilder sb = new StringBuilder();
+            // first 8 bytes are plenty to tell assets apart
+            for (int i = 0; i < 8; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new AfoReporterException("SHA-256 not available", e);
+        }
+    }
+}
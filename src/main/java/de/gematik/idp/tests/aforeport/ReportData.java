@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Writes the merged afos and test results as compact JSON payload for the data driven report viewer.
+ * <p>
+ * The payload is wrapped in a JavaScript assignment to the global variable <code>aforeportData</code>, so that the
+ * viewer can load it via a script tag also when opened from the local file system. Rows are written as arrays to keep
+ * the payload small, every test result is written only once and referenced by its index:</p>
+ * <pre>
+ * {
+ *   "testcases": [[status, feature name, scenario name, path], ...],
+ *   "afos": [[id and version, title, status, afo status, pet status, description, ref name, ref url,
+ *             [testcase index, ...]], ...],
+ *   "unreferenced": [testcase index, ...]
+ * }
+ * </pre>
+ */
+public class ReportData {
+
+    public static final String VARIABLE = "aforeportData";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private ReportData() {
+    }
+
+    /**
+     * writes the payload to given writer. Afos are written sorted by id, test results of each afo in the order of the
+     * store.
+     *
+     * @param out   writer to write payload to, not closed by this method
+     * @param afos  afos in the order they were added to the store
+     * @param store test results linked to the afos and test cases without afo reference
+     * @throws IOException if writing fails
+     */
+    public static void write(final Writer out, final List<AfoData> afos, final ResultStore store) throws IOException {
+        // payload index per store row, -1 if not written yet
+        final int[] indices = new int[store.size()];
+        Arrays.fill(indices, -1);
+        final int[] sortedAfos = IntStream.range(0, afos.size()).boxed()
+            .sorted(Comparator.comparing(i -> afos.get(i).getId()))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        out.write("var " + VARIABLE + " = ");
+        try (final JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("testcases");
+            int count = 0;
+            for (final int i : sortedAfos) {
+                for (final int row : store.getAfoTestcases(i)) {
+                    count = writeTestcase(gen, store, row, indices, count);
+                }
+            }
+            for (final int row : store.getUnreferenced()) {
+                count = writeTestcase(gen, store, row, indices, count);
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("afos");
+            for (final int i : sortedAfos) {
+                final AfoData afo = afos.get(i);
+                gen.writeStartArray();
+                gen.writeString(afo.getIdAndVersion());
+                gen.writeString(afo.getTitle());
+                gen.writeString(afo.getAfoStatus() == AfoStatus.DELETED ? "deleted"
+                    : Optional.ofNullable(afo.getStatus()).orElse(Result.UNKNOWN).toString().toLowerCase());
+                gen.writeString(afo.getAfoStatus().toString());
+                gen.writeString(Optional.ofNullable(afo.getPetStatus()).orElse("notBinding"));
+                gen.writeString(afo.getDescription());
+                gen.writeString(afo.getRefName());
+                gen.writeString(afo.getRefURL());
+                gen.writeStartArray();
+                for (final int row : store.getAfoTestcases(i)) {
+                    gen.writeNumber(indices[row]);
+                }
+                gen.writeEndArray();
+                gen.writeEndArray();
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("unreferenced");
+            for (final int row : store.getUnreferenced()) {
+                gen.writeNumber(indices[row]);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        out.write(";\n");
+    }
+
+    private static int writeTestcase(final JsonGenerator gen, final ResultStore store, final int row,
+        final int[] indices, final int count) throws IOException {
+        if (indices[row] != -1) {
+            return count;
+        }
+        indices[row] = count;
+        gen.writeStartArray();
+        gen.writeString(store.getStatus(row).toString().toLowerCase());
+        gen.writeString(Optional.ofNullable(store.getFeatureName(row)).orElse("UNDEFINED"));
+        gen.writeString(Optional.ofNullable(store.getScenarioName(row)).orElse("UNDEFINED"));
+        gen.writeString(Optional.ofNullable(store.getPath(row)).orElse(""));
+        gen.writeEndArray();
+        return count + 1;
+    }
+}
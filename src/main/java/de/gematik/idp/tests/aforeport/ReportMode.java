@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+/**
+ * Defines how the HTML report is written.
+ */
+public enum ReportMode {
+    /**
+     * single self-contained HTML file with all styles, scripts and images inlined.
+     */
+    SINGLE,
+    /**
+     * slim HTML file referencing styles, scripts and images written once to an assets folder next to the report, named
+     * by their content hash so that browsers and archives can share them across reports.
+     */
+    ASSETS,
+    /**
+     * lightweight viewer page rendering the afo list client side from a JSON data file written next to the report, so
+     * that report size scales with the data and not with repeated markup.
+     */
+    DATA
+}
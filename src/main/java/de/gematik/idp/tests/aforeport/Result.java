@@ -21,5 +21,27 @@ public enum Result {
     FAILED,
     ERROR,
     SKIPPED,
-    UNKNOWN
+    UNKNOWN;
+
+    /**
+     * combines the result of a requirement so far with the result of one more of its test cases. Any error makes the
+     * requirement erroneous and any failure failed, passed test cases win over skipped and unknown ones and skipped
+     * test cases over unknown ones.
+     *
+     * @param requirement result of the requirement so far, UNKNOWN if no test case was combined yet
+     * @param testcase    result of the test case, null is ignored
+     * @return combined result of the requirement
+     */
+    public static Result combine(final Result requirement, final Result testcase) {
+        if (requirement == ERROR || testcase == ERROR) {
+            return ERROR;
+        } else if (testcase == FAILED) {
+            return FAILED;
+        } else if (testcase == PASSED && (requirement == UNKNOWN || requirement == SKIPPED)) {
+            return PASSED;
+        } else if (testcase == SKIPPED && requirement == UNKNOWN) {
+            return SKIPPED;
+        }
+        return requirement;
+    }
 }
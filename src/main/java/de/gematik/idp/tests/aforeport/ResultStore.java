@@ -0,0 +1,480 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Compact columnar store of the test results of a report and their links to the afos.
+ * <p>
+ * Instead of one object per test result the store keeps parallel columns, one row per test case: class, method,
+ * feature name, scenario name, path, suite and the error message, type and details as ids into a shared string table,
+ * the result as a single byte and the captured system out and err as references, so lazily captured output stays in
+ * the result file. The test cases of all afos are kept in one int array of rows with an offset per afo. So even result
+ * sets of millions of test cases take only a few ints per test case besides the distinct strings.</p>
+ * <p>
+ * The store is filled with a {@link Builder} in three phases: first all test results in the order they are parsed,
+ * then the test cases of each afo in the order of the afo list and finally the test cases without afo reference.
+ * Afos are identified by their index in the afo list.</p>
+ */
+public final class ResultStore {
+
+    private static final Result[] RESULTS = Result.values();
+    private static final Comparator<String> CLASS_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final String[] strings;
+    private final int[] clazz;
+    private final int[] method;
+    private final int[] featureName;
+    private final int[] scenarioName;
+    private final int[] path;
+    private final int[] suite;
+    private final int[] errmessage;
+    private final int[] errtype;
+    private final int[] errdetails;
+    private final CapturedOutput[] errsysout;
+    private final CapturedOutput[] errsyserr;
+    private final byte[] status;
+    private final int resultCount;
+    private final int[] afoOffsets;
+    private final int[] afoTestcases;
+    private final int[] unreferenced;
+
+    private ResultStore(final Builder builder) {
+        final int size = builder.size;
+        strings = Arrays.copyOf(builder.strings.values, builder.strings.size);
+        clazz = Arrays.copyOf(builder.clazz, size);
+        method = Arrays.copyOf(builder.method, size);
+        featureName = Arrays.copyOf(builder.featureName, size);
+        scenarioName = Arrays.copyOf(builder.scenarioName, size);
+        path = Arrays.copyOf(builder.path, size);
+        suite = Arrays.copyOf(builder.suite, size);
+        errmessage = Arrays.copyOf(builder.errmessage, size);
+        errtype = Arrays.copyOf(builder.errtype, size);
+        errdetails = Arrays.copyOf(builder.errdetails, size);
+        errsysout = Arrays.copyOf(builder.errsysout, size);
+        errsyserr = Arrays.copyOf(builder.errsyserr, size);
+        status = Arrays.copyOf(builder.status, size);
+        resultCount = builder.resultCount;
+        afoOffsets = Arrays.copyOf(builder.afoOffsets, builder.afoCount + 1);
+        afoTestcases = Arrays.copyOf(builder.afoTestcases, builder.afoOffsets[builder.afoCount]);
+        unreferenced = builder.sortByClass(Arrays.copyOf(builder.unreferenced, builder.unreferencedCount));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return number of rows, i.e. test results plus test cases without afo reference and without test result
+     */
+    public int size() {
+        return status.length;
+    }
+
+    /**
+     * @return number of test results added to the store
+     */
+    public int getResultCount() {
+        return resultCount;
+    }
+
+    public Result getStatus(final int row) {
+        return RESULTS[status[row]];
+    }
+
+    public String getClazz(final int row) {
+        return string(clazz[row]);
+    }
+
+    public String getMethod(final int row) {
+        return string(method[row]);
+    }
+
+    public String getFeatureName(final int row) {
+        return string(featureName[row]);
+    }
+
+    public String getScenarioName(final int row) {
+        return string(scenarioName[row]);
+    }
+
+    public String getPath(final int row) {
+        return string(path[row]);
+    }
+
+    public String getSuite(final int row) {
+        return string(suite[row]);
+    }
+
+    public String getErrmessage(final int row) {
+        return string(errmessage[row]);
+    }
+
+    public String getErrtype(final int row) {
+        return string(errtype[row]);
+    }
+
+    public String getErrdetails(final int row) {
+        return string(errdetails[row]);
+    }
+
+    /**
+     * @param row row of the test result
+     * @return captured system out of the test result, null for test cases without test result or output
+     */
+    public CapturedOutput getErrsysout(final int row) {
+        return errsysout[row];
+    }
+
+    /**
+     * @param row row of the test result
+     * @return captured system err of the test result, null for test cases without test result or output
+     */
+    public CapturedOutput getErrsyserr(final int row) {
+        return errsyserr[row];
+    }
+
+    /**
+     * @return number of afos added to the store
+     */
+    public int getAfoCount() {
+        return afoOffsets.length - 1;
+    }
+
+    /**
+     * @param afo index of the afo in the afo list
+     * @return number of test results of the afo
+     */
+    public int getAfoTestcaseCount(final int afo) {
+        return afoOffsets[afo + 1] - afoOffsets[afo];
+    }
+
+    /**
+     * @param afo index of the afo in the afo list
+     * @return rows of the test results of the afo sorted by class
+     */
+    public int[] getAfoTestcases(final int afo) {
+        return Arrays.copyOfRange(afoTestcases, afoOffsets[afo], afoOffsets[afo + 1]);
+    }
+
+    /**
+     * @return rows of the test cases without afo reference sorted by class
+     */
+    public int[] getUnreferenced() {
+        return unreferenced.clone();
+    }
+
+    private String string(final int id) {
+        return id == StringTable.NULL ? null : strings[id];
+    }
+
+    /**
+     * Fills a result store. Test results must be added before the afos and the afos before the test cases without afo
+     * reference.
+     */
+    public static final class Builder {
+
+        private static final int NOT_FOUND = -1;
+
+        private final StringTable strings = new StringTable();
+        private int size;
+        private int[] clazz = new int[16];
+        private int[] method = new int[16];
+        private int[] featureName = new int[16];
+        private int[] scenarioName = new int[16];
+        private int[] path = new int[16];
+        private int[] suite = new int[16];
+        private int[] errmessage = new int[16];
+        private int[] errtype = new int[16];
+        private int[] errdetails = new int[16];
+        private CapturedOutput[] errsysout = new CapturedOutput[16];
+        private CapturedOutput[] errsyserr = new CapturedOutput[16];
+        private byte[] status = new byte[16];
+        /**
+         * open addressing hash table of rows by class and method, holding row + 1, 0 for a free slot.
+         */
+        private int[] slots = new int[32];
+        private int resultCount;
+        private int afoCount;
+        private int[] afoOffsets = new int[16];
+        private int[] afoTestcases = new int[16];
+        private int unreferencedCount;
+        private int[] unreferenced = new int[16];
+
+        private Builder() {
+        }
+
+        /**
+         * @return number of test results added so far
+         */
+        public int getResultCount() {
+            return resultCount;
+        }
+
+        /**
+         * @param afo index of an afo already added
+         * @return number of test results of the afo
+         */
+        public int getAfoTestcaseCount(final int afo) {
+            return afoOffsets[afo + 1] - afoOffsets[afo];
+        }
+
+        /**
+         * adds a test result. If a test result of the same class and method was added before, it is replaced.
+         *
+         * @param tr test result
+         * @return this builder
+         * @throws IllegalStateException if afos or test cases without afo reference were already added
+         */
+        public Builder addResult(final TestResult tr) {
+            if (afoCount > 0 || unreferencedCount > 0) {
+                throw new IllegalStateException("Test results must be added before the afos");
+            }
+            final int c = strings.add(tr.getClazz());
+            final int m = strings.add(tr.getMethod());
+            int row = find(c, m);
+            if (row == NOT_FOUND) {
+                row = addRow(c, m);
+                resultCount++;
+            }
+            setRow(row, tr, tr.getStatus());
+            suite[row] = strings.add(tr.getSuite());
+            errmessage[row] = strings.add(tr.getErrmessage());
+            errtype[row] = strings.add(tr.getErrtype());
+            errdetails[row] = strings.add(tr.getErrdetails());
+            errsysout[row] = tr.getErrsysout();
+            errsyserr[row] = tr.getErrsyserr();
+            return this;
+        }
+
+        /**
+         * adds the next afo of the afo list with the test results of given test cases. Test cases without test result
+         * are ignored.
+         *
+         * @param testcases test cases of the afo, may be null
+         * @return result of the afo combined from its test results, UNKNOWN if there are none
+         * @throws IllegalStateException if test cases without afo reference were already added
+         */
+        public Result addAfo(final List<? extends Testcase> testcases) {
+            if (unreferencedCount > 0) {
+                throw new IllegalStateException("Afos must be added before the test cases without afo reference");
+            }
+            final int[] rows = testcases == null ? new int[0] : testcases.stream()
+                .mapToInt(tc -> find(strings.find(tc.getClazz()), strings.find(tc.getMethod())))
+                .filter(row -> row != NOT_FOUND)
+                .toArray();
+            final int start = afoOffsets[afoCount];
+            afoTestcases = ensureCapacity(afoTestcases, start + rows.length);
+            System.arraycopy(sortByClass(rows), 0, afoTestcases, start, rows.length);
+            afoOffsets = ensureCapacity(afoOffsets, afoCount + 2);
+            afoOffsets[++afoCount] = start + rows.length;
+
+            Result result = Result.UNKNOWN;
+            for (final int row : rows) {
+                result = Result.combine(result, RESULTS[status[row]]);
+            }
+            return result;
+        }
+
+        /**
+         * adds a test case without afo reference. If there is no test result for it, it is added with unknown result.
+         *
+         * @param tc test case without afo reference
+         * @return this builder
+         */
+        public Builder addUnreferenced(final Testcase tc) {
+            final int c = strings.add(tc.getClazz());
+            final int m = strings.add(tc.getMethod());
+            int row = find(c, m);
+            if (row == NOT_FOUND) {
+                row = addRow(c, m);
+                setRow(row, tc, Result.UNKNOWN);
+                suite[row] = StringTable.NULL;
+                errmessage[row] = StringTable.NULL;
+                errtype[row] = StringTable.NULL;
+                errdetails[row] = StringTable.NULL;
+            }
+            unreferenced = ensureCapacity(unreferenced, unreferencedCount + 1);
+            unreferenced[unreferencedCount++] = row;
+            return this;
+        }
+
+        public ResultStore build() {
+            return new ResultStore(this);
+        }
+
+        private int[] sortByClass(final int[] rows) {
+            return IntStream.of(rows).boxed()
+                .sorted(Comparator.comparing(row -> strings.get(clazz[row]), CLASS_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+
+        private int addRow(final int c, final int m) {
+            if (size == clazz.length) {
+                final int capacity = size * 2;
+                clazz = Arrays.copyOf(clazz, capacity);
+                method = Arrays.copyOf(method, capacity);
+                featureName = Arrays.copyOf(featureName, capacity);
+                scenarioName = Arrays.copyOf(scenarioName, capacity);
+                path = Arrays.copyOf(path, capacity);
+                suite = Arrays.copyOf(suite, capacity);
+                errmessage = Arrays.copyOf(errmessage, capacity);
+                errtype = Arrays.copyOf(errtype, capacity);
+                errdetails = Arrays.copyOf(errdetails, capacity);
+                errsysout = Arrays.copyOf(errsysout, capacity);
+                errsyserr = Arrays.copyOf(errsyserr, capacity);
+                status = Arrays.copyOf(status, capacity);
+            }
+            final int row = size++;
+            clazz[row] = c;
+            method[row] = m;
+            if (size * 2 > slots.length) {
+                rehash();
+            } else {
+                slots[freeSlot(c, m)] = row + 1;
+            }
+            return row;
+        }
+
+        private void setRow(final int row, final Testcase tc, final Result result) {
+            featureName[row] = strings.add(tc.getFeatureName());
+            scenarioName[row] = strings.add(tc.getScenarioName());
+            path[row] = strings.add(tc.getPath());
+            status[row] = (byte) (result == null ? Result.UNKNOWN : result).ordinal();
+        }
+
+        private int find(final int c, final int m) {
+            if (c == StringTable.ABSENT || m == StringTable.ABSENT) {
+                return NOT_FOUND;
+            }
+            final int mask = slots.length - 1;
+            for (int i = hash(c, m) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                final int row = slots[i] - 1;
+                if (clazz[row] == c && method[row] == m) {
+                    return row;
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        private int freeSlot(final int c, final int m) {
+            final int mask = slots.length - 1;
+            int i = hash(c, m) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            for (int row = 0; row < size; row++) {
+                slots[freeSlot(clazz[row], method[row])] = row + 1;
+            }
+        }
+
+        private static int hash(final int c, final int m) {
+            final int h = (c * 31 + m) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Table of distinct strings by id, with an open addressing hash table to look the ids up.
+     */
+    private static final class StringTable {
+
+        static final int NULL = -1;
+        static final int ABSENT = -2;
+
+        private String[] values = new String[16];
+        private int size;
+        /**
+         * open addressing hash table of ids, holding id + 1, 0 for a free slot.
+         */
+        private int[] slots = new int[32];
+
+        String get(final int id) {
+            return id == NULL ? null : values[id];
+        }
+
+        /**
+         * @param s string to look up
+         * @return id of the string, {@link #NULL} if s is null or {@link #ABSENT} if the string is not in the table
+         */
+        int find(final String s) {
+            if (s == null) {
+                return NULL;
+            }
+            final int mask = slots.length - 1;
+            for (int i = hash(s) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (values[slots[i] - 1].equals(s)) {
+                    return slots[i] - 1;
+                }
+            }
+            return ABSENT;
+        }
+
+        /**
+         * @param s string to add
+         * @return id of the string, {@link #NULL} if s is null
+         */
+        int add(final String s) {
+            final int found = find(s);
+            if (found != ABSENT) {
+                return found;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            final int id = size++;
+            values[id] = s;
+            if (size * 2 > slots.length) {
+                slots = new int[slots.length * 2];
+                for (int i = 0; i < size; i++) {
+                    slots[freeSlot(values[i])] = i + 1;
+                }
+            } else {
+                slots[freeSlot(s)] = id + 1;
+            }
+            return id;
+        }
+
+        private int freeSlot(final String s) {
+            final int mask = slots.length - 1;
+            int i = hash(s) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private static int hash(final String s) {
+            final int h = s.hashCode();
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private static int[] ensureCapacity(final int[] array, final int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+}
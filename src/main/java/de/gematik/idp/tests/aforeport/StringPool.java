@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <p>Weak interner for strings shared by many test cases like class names, feature names, paths and suite names.
+ * <p>
+ * Equal strings routed through the same pool are replaced by a single instance, so thousands of test cases of the
+ * same class or feature file retain only one copy. Pooled strings are held weakly and released once no test case
+ * references them anymore. The pool counts the duplicates replaced, to report the estimated memory saved.</p>
+ */
+public class StringPool {
+
+    /**
+     * estimated bytes of a string besides its characters: object header, fields and array header.
+     */
+    private static final int STRING_OVERHEAD = 40;
+
+    private final Map<String, WeakReference<String>> pool = new WeakHashMap<>();
+    private long requests;
+    private long duplicates;
+    private long savedBytes;
+
+    /**
+     * @param s string to intern, may be null
+     * @return pooled instance equal to given string or null if s is null
+     */
+    public synchronized String intern(final String s) {
+        if (s == null) {
+            return null;
+        }
+        requests++;
+        final WeakReference<String> ref = pool.get(s);
+        final String pooled = ref == null ? null : ref.get();
+        if (pooled == null) {
+            pool.put(s, new WeakReference<>(s));
+            return s;
+        }
+        if (pooled != s) {
+            duplicates++;
+            savedBytes += estimateSize(s);
+        }
+        return pooled;
+    }
+
+    /**
+     * interns class name, feature name and path of given test case and the suite name if it is a test result.
+     *
+     * @param tc test case to intern the fields of
+     * @param <T> type of test case
+     * @return given test case
+     */
+    public <T extends Testcase> T intern(final T tc) {
+        tc.setClazz(intern(tc.getClazz()));
+        tc.setFeatureName(intern(tc.getFeatureName()));
+        tc.setPath(intern(tc.getPath()));
+        if (tc instanceof TestResult) {
+            final TestResult tr = (TestResult) tc;
+            tr.setSuite(intern(tr.getSuite()));
+        }
+        return tc;
+    }
+
+    /**
+     * interns the fields of all given test cases.
+     *
+     * @param tcs test cases to intern the fields of
+     * @param <T> type of test case
+     * @return given list
+     */
+    public <T extends Testcase> List<T> internAll(final List<T> tcs) {
+        tcs.forEach(this::intern);
+        return tcs;
+    }
+
+    private static long estimateSize(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                // compact strings store non latin1 strings with two bytes per char
+                return STRING_OVERHEAD + 2L * s.length();
+            }
+        }
+        return STRING_OVERHEAD + (long) s.length();
+    }
+
+    /**
+     * @return number of strings routed through the pool
+     */
+    public synchronized long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return number of duplicate strings replaced by a pooled instance
+     */
+    public synchronized long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return estimated number of bytes no longer retained because duplicates were replaced
+     */
+    public synchronized long getSavedBytes() {
+        return savedBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d strings pooled, %d duplicates replaced, about %d KB saved",
+            requests, duplicates, savedBytes / 1024);
+    }
+}
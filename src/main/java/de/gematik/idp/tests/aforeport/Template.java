@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>HTML template compiled once into a sequence of literal segments and <code>${Name}</code> slots.
+ * <p>
+ * Rendering appends the literal segments and the slot values straight into the output, so the template is scanned
+ * only once at compile time, regardless of the number of entries rendered with it. Slot values are not scanned for
+ * further placeholders. Slots without a value in the given map are rendered unchanged as <code>${Name}</code>, so
+ * that e.g. JavaScript template literals in the templates are kept as they are.</p>
+ */
+public class Template {
+
+    private static final String SLOT_START = "${";
+    private static final char SLOT_END = '}';
+
+    /**
+     * literal segments, one more than there are slots. The slot with index i is located between literal i and i + 1.
+     */
+    private final String[] literals;
+    private final String[] slots;
+
+    /**
+     * slot value that is written directly to the output when the slot is rendered, so that large sections must not
+     * be built in memory up front.
+     */
+    @FunctionalInterface
+    public interface Section {
+
+        void writeTo(Appendable out) throws IOException;
+    }
+
+    private Template(final String[] literals, final String[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * @param source template text
+     * @return compiled template
+     */
+    public static Template compile(final String source) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> slots = new ArrayList<>();
+        int literalStart = 0;
+        int pos = source.indexOf(SLOT_START);
+        while (pos != -1) {
+            final int end = source.indexOf(SLOT_END, pos + SLOT_START.length());
+            if (end == -1) {
+                break;
+            }
+            final String name = source.substring(pos + SLOT_START.length(), end);
+            if (isSlotName(name)) {
+                literals.add(source.substring(literalStart, pos));
+                slots.add(name);
+                literalStart = end + 1;
+                pos = source.indexOf(SLOT_START, literalStart);
+            } else {
+                pos = source.indexOf(SLOT_START, pos + 1);
+            }
+        }
+        literals.add(source.substring(literalStart));
+        return new Template(literals.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    private static boolean isSlotName(final String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isLetterOrDigit(name.charAt(i)) && name.charAt(i) != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return names of all slots of the template in order of their first occurrence
+     */
+    public Set<String> getSlotNames() {
+        final Set<String> names = new LinkedHashSet<>();
+        Collections.addAll(names, slots);
+        return names;
+    }
+
+    /**
+     * appends the rendered template to the given output.
+     *
+     * @param out    output to append to
+     * @param values values per slot name, a null value is rendered as empty string, a {@link Section} value writes
+     *               its content directly to the output
+     * @throws IOException if appending to the output fails
+     */
+    public void render(final Appendable out, final Map<String, ?> values) throws IOException {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            if (values.containsKey(slots[i])) {
+                final Object value = values.get(slots[i]);
+                if (value instanceof Section) {
+                    ((Section) value).writeTo(out);
+                } else if (value instanceof CharSequence) {
+                    out.append((CharSequence) value);
+                } else if (value != null) {
+                    out.append(value.toString());
+                }
+            } else {
+                out.append(SLOT_START).append(slots[i]).append(SLOT_END);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    /**
+     * appends the rendered template to the given string builder.
+     *
+     * @param sb     string builder to append to
+     * @param values values per slot name, a null value is rendered as empty string
+     */
+    public void render(final StringBuilder sb, final Map<String, ?> values) {
+        try {
+            render((Appendable) sb, values);
+        } catch (final IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param values values per slot name, a null value is rendered as empty string
+     * @return rendered template
+     */
+    public String render(final Map<String, ?> values) {
+        final StringBuilder sb = new StringBuilder();
+        render(sb, values);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * <p>Holds the compiled report templates of a templates folder or of the internal templates.
+ * <p>
+ * The templates are loaded, compiled and validated only once per folder and JVM and may be shared by all reports
+ * rendered in the same process. Loading fails fast with an {@link AfoReporterException} if a template misses one of
+ * the placeholders the report relies on.</p>
+ */
+@Slf4j
+@Getter
+public class TemplateRegistry {
+
+    private static final String INTERNAL_TEMPLATES = "/de/gematik/idp/tests/aforeport/";
+
+    private static final Map<String, TemplateRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    private static final List<String> REQUIRED_BODY = List.of("AfosTested", "AfosUnTested", "ScenariosUnreferenced");
+    private static final List<String> REQUIRED_AFOENTRY = List.of("AfoID", "Testresults");
+    private static final List<String> REQUIRED_TCENTRY = List.of("TCStatus", "TCMethod");
+    private static final List<String> REQUIRED_VIEWER = List.of("DataFile");
+
+    private final String header;
+    private final Template body;
+    private final Template afoentry;
+    private final Template tcentry;
+    @Getter(AccessLevel.NONE)
+    private final String bodySource;
+    @Getter(AccessLevel.NONE)
+    private final String templatesFolder;
+    @Getter(AccessLevel.NONE)
+    private ReportAssets assets;
+    @Getter(AccessLevel.NONE)
+    private Template viewer;
+
+    private TemplateRegistry(final String templatesFolder) {
+        this.templatesFolder = templatesFolder;
+        if (templatesFolder == null) {
+            log.info("    Using internal templates...");
+        } else {
+            log.info("    Using templates from '" + templatesFolder + "'...");
+        }
+        header = readTemplate(templatesFolder, "header.html");
+        bodySource = readTemplate(templatesFolder, "body.html");
+        body = compile("body.html", bodySource, REQUIRED_BODY);
+        afoentry = compile("afoentry.html", readTemplate(templatesFolder, "afoentry.html"), REQUIRED_AFOENTRY);
+        tcentry = compile("tcentry.html", readTemplate(templatesFolder, "tcentry.html"), REQUIRED_TCENTRY);
+    }
+
+    /**
+     * returns the templates of given folder, loading them on first access.
+     *
+     * @param templatesFolder folder to read the templates from or null for the internal templates
+     * @return templates of the folder
+     * @throws AfoReporterException if a template can not be read or misses a required placeholder
+     */
+    public static TemplateRegistry forFolder(final String templatesFolder) {
+        final String key = templatesFolder == null ? "" : new File(templatesFolder).getAbsolutePath();
+        return REGISTRIES.computeIfAbsent(key, k -> new TemplateRegistry(templatesFolder));
+    }
+
+    /**
+     * drops all loaded templates, so that modified templates are read again on next access.
+     */
+    public static void clear() {
+        REGISTRIES.clear();
+    }
+
+    /**
+     * returns header and body with styles, scripts and images moved to asset files, extracting them on first access.
+     *
+     * @return header and body templates referencing asset files
+     */
+    public synchronized ReportAssets getAssets() {
+        if (assets == null) {
+            assets = new ReportAssets(header, bodySource);
+        }
+        return assets;
+    }
+
+    /**
+     * returns the viewer page of the data driven report, loading it on first access. If the templates folder contains
+     * no viewer page the internal one is used.
+     *
+     * @return viewer page template
+     */
+    public synchronized Template getViewer() {
+        if (viewer == null) {
+            final String name = "viewer.html";
+            final boolean custom = templatesFolder != null && new File(templatesFolder, name).exists();
+            viewer = compile(name, readTemplate(custom ? templatesFolder : null, name), REQUIRED_VIEWER);
+        }
+        return viewer;
+    }
+
+    private static Template compile(final String name, final String source, final List<String> required) {
+        final Template template = Template.compile(source);
+        final Set<String> slots = template.getSlotNames();
+        final List<String> missing = required.stream()
+            .filter(slot -> !slots.contains(slot))
+            .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new AfoReporterException("Template '" + name + "' misses placeholders " + missing);
+        }
+        return template;
+    }
+
+    private static String readTemplate(final String templatesFolder, final String name) {
+        try {
+            if (templatesFolder == null) {
+                try (final InputStream is = TemplateRegistry.class.getResourceAsStream(INTERNAL_TEMPLATES + name)) {
+                    if (is == null) {
+                        throw new AfoReporterException("Internal template '" + name + "' not found");
+                    }
+                    return IOUtils.toString(is, StandardCharsets.UTF_8);
+                }
+            }
+            return FileUtils.readFileToString(new File(templatesFolder + File.separator + name),
+                StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new AfoReporterException("Unable to read template '" + name + "'", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Immutable key identifying a test case by class and method, used to look up test cases and test results.
+ * <p>
+ * Keys are interned, so equal keys obtained via {@link #of(String, String)} are the same instance and comparing them
+ * needs no string comparison. The hash is computed once on creation. Looking up an existing key neither allocates nor
+ * locks, so parser threads do not contend on it. Pooled keys are held weakly, so the pool keeps no key alive that no
+ * test case or result refers to anymore, and concurrent report runs share it without interfering.</p>
+ */
+public final class TestKey {
+
+    /**
+     * stands in for null class or method names, as concurrent maps do not accept null keys.
+     */
+    private static final Object NULL = new Object();
+    private static final ConcurrentMap<Object, ConcurrentMap<Object, KeyReference>> POOL = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<TestKey> RELEASED = new ReferenceQueue<>();
+
+    private final String clazz;
+    private final String method;
+    private final int hash;
+
+    private TestKey(final String clazz, final String method) {
+        this.clazz = clazz;
+        this.method = method;
+        hash = 31 * Objects.hashCode(clazz) + Objects.hashCode(method);
+    }
+
+    /**
+     * @param clazz  class or feature name of the test case
+     * @param method method or scenario name of the test case
+     * @return interned key for given class and method
+     */
+    public static TestKey of(final String clazz, final String method) {
+        final Object c = clazz == null ? NULL : clazz;
+        final Object m = method == null ? NULL : method;
+        final ConcurrentMap<Object, KeyReference> methods = POOL.get(c);
+        if (methods != null) {
+            final KeyReference ref = methods.get(m);
+            final TestKey key = ref == null ? null : ref.get();
+            if (key != null) {
+                return key;
+            }
+        }
+        expungeReleased();
+        final TestKey created = new TestKey(clazz, method);
+        final TestKey[] pooled = new TestKey[1];
+        // insert under the lock of the class entry, so that it cannot be removed concurrently by expungeReleased
+        POOL.compute(c, (k, current) -> {
+            final ConcurrentMap<Object, KeyReference> map = current == null ? new ConcurrentHashMap<>() : current;
+            final KeyReference ref = map.get(m);
+            pooled[0] = ref == null ? null : ref.get();
+            if (pooled[0] == null) {
+                map.put(m, new KeyReference(created, c, m));
+                pooled[0] = created;
+            }
+            return map;
+        });
+        return pooled[0];
+    }
+
+    /**
+     * removes the entries of keys released by the garbage collector from the pool.
+     */
+    private static void expungeReleased() {
+        KeyReference ref;
+        while ((ref = (KeyReference) RELEASED.poll()) != null) {
+            final KeyReference released = ref;
+            POOL.computeIfPresent(released.clazz, (k, methods) -> {
+                methods.remove(released.method, released);
+                return methods.isEmpty() ? null : methods;
+            });
+        }
+    }
+
+    public String getClazz() {
+        return clazz;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TestKey)) {
+            return false;
+        }
+        final TestKey other = (TestKey) o;
+        return hash == other.hash && Objects.equals(clazz, other.clazz) && Objects.equals(method, other.method);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * @return "clazz:method"
+     */
+    @Override
+    public String toString() {
+        return clazz + ":" + method;
+    }
+
+    /**
+     * Weak reference to a pooled key remembering its pool entry, so that the entry can be removed once the key is
+     * released.
+     */
+    private static final class KeyReference extends WeakReference<TestKey> {
+
+        private final Object clazz;
+        private final Object method;
+
+        KeyReference(final TestKey key, final Object clazz, final Object method) {
+            super(key, RELEASED);
+            this.clazz = clazz;
+            this.method = method;
+        }
+    }
+}
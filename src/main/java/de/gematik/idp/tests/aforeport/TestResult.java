@@ -41,6 +41,14 @@ public class TestResult extends Testcase {
     String errmessage;
     String errtype;
     String errdetails;
-    String errsysout;
-    String errsyserr;
+    /**
+     * system out of the test case as captured according to the {@link CapturePolicy} of the result parser, use {@link
+     * CapturedOutput#getText()} to read the text.
+     */
+    CapturedOutput errsysout;
+    /**
+     * system err of the test case as captured according to the {@link CapturePolicy} of the result parser, use {@link
+     * CapturedOutput#getText()} to read the text.
+     */
+    CapturedOutput errsyserr;
 }
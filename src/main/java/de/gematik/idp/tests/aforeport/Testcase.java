@@ -16,8 +16,13 @@
 
 package de.gematik.idp.tests.aforeport;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.Objects;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
 public class Testcase {
@@ -27,6 +32,41 @@ public class Testcase {
     private String featureName;
     private String scenarioName;
     private String path;
+    /**
+     * key of class and method, created on first access and reset if class or method change. Setting an equal string,
+     * e.g. when interning, keeps the key.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private TestKey key;
+
+    public void setClazz(final String clazz) {
+        if (!Objects.equals(this.clazz, clazz)) {
+            key = null;
+        }
+        this.clazz = clazz;
+    }
+
+    public void setMethod(final String method) {
+        if (!Objects.equals(this.method, method)) {
+            key = null;
+        }
+        this.method = method;
+    }
+
+    /**
+     * @return interned key of class and method of this test case
+     */
+    @JsonIgnore
+    public TestKey getKey() {
+        TestKey k = key;
+        if (k == null) {
+            k = TestKey.of(clazz, method);
+            key = k;
+        }
+        return k;
+    }
 
     @Override
     public boolean equals(final Object o) {
@@ -39,6 +79,6 @@ public class Testcase {
 
     @Override
     public int hashCode() {
-        return (clazz + ":" + method).hashCode();
+        return getKey().hashCode();
     }
 }
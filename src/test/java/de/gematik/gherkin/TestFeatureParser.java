@@ -1,9 +1,19 @@
 package de.gematik.gherkin;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import de.gematik.gherkin.model.Feature;
+import de.gematik.gherkin.model.GherkinStruct;
+import de.gematik.gherkin.model.JSON;
+import de.gematik.gherkin.model.Scenario;
+import de.gematik.gherkin.model.ScenarioOutline;
+import de.gematik.gherkin.model.Step;
+import java.io.StringReader;
+import java.nio.CharBuffer;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 public class TestFeatureParser {
@@ -28,4 +38,112 @@ public class TestFeatureParser {
         assertThat(f.getScenarios()).hasSize(14);
     }
 
+    @Test
+    public void parseGermanKeywords() {
+        final FeatureParser fp = new FeatureParser();
+        final Feature f = fp
+            .parseFeatureFile(Paths.get("src", "test", "resources", "bdd", "germanKeywords.feature").toFile());
+
+        assertThat(f.getName()).isEqualTo("Deutsche Schlüsselwörter");
+        assertThat(f.getBackground()).isNotNull();
+        assertThat(keywords(f.getBackground().getSteps())).containsExactly("Given", "And");
+        assertThat(f.getScenarios()).hasSize(3);
+        final Scenario scenario = (Scenario) f.getScenarios().get(0);
+        assertThat(scenario.getTags()).hasSize(1);
+        assertThat(keywords(scenario.getSteps())).containsExactly("When", "Then", "But");
+        assertThat(scenario.getSteps().get(0).getLines()).containsExactly("Wenn das Discovery Dokument angefragt wird");
+        assertThat(f.getScenarios().get(1)).isNotInstanceOf(ScenarioOutline.class);
+        final Scenario example = (Scenario) f.getScenarios().get(1);
+        assertThat(example.getName()).isEqualTo("Disc - Discovery Dokument ist signiert");
+        assertThat(keywords(example.getSteps())).containsExactly("Given", "When", "Then");
+        assertThat(f.getScenarios().get(2)).isInstanceOf(ScenarioOutline.class);
+        final ScenarioOutline outline = (ScenarioOutline) f.getScenarios().get(2);
+        assertThat(keywords(outline.getSteps())).containsExactly("When", "Then");
+        assertThat(outline.getExamples().getKeyword()).isEqualTo("Examples");
+        assertThat(outline.getExamples().getLines()).hasSize(4);
+        assertThat(outline.toPolarionJSON().getString(JSON.DATAVARIANTS)).contains("| a         |");
+        assertThat(example.toPolarionJSON().getString(JSON.TESTABLAUF))
+            .contains("<b>Setup</b>", "<b>Aktion</b>", "<b>Prüfung</b>");
+    }
+
+    private static List<String> keywords(final List<Step> steps) {
+        return steps.stream().map(Step::getKeyword).collect(Collectors.toList());
+    }
+
+    @Test
+    public void getLocalizedStepKeyword() {
+        assertThat(Step.getKeyword("Gegeben seien zwei Clients", "de")).isEqualTo("Gegeben seien");
+        assertThat(Step.getKeyword("Gegeben sei ein Client", "de")).isEqualTo("Gegeben sei");
+        assertThat(Step.getKeyword("Beispiele:", "de")).isEqualTo("Beispiele");
+        assertThat(Step.getKeyword("Examples :", "de")).isEqualTo("Examples");
+        assertThat(Step.fromLine("Angenommen ein Client", "de").getKeyword()).isEqualTo("Given");
+        assertThat(Step.fromLine("Given a client", "de").getKeyword()).isEqualTo("Given");
+        assertThat(Step.isKeyword("Beispiel", "de")).isFalse();
+        assertThat(Step.isKeyword("Dann", "en")).isFalse();
+        assertThat(Step.isKeyword("Dann", "fr")).isFalse();
+    }
+
+    @Test
+    public void germanStepKeywordsRequireLanguageHeader() {
+        final Feature f = new FeatureParser().parseFeature(
+            "Feature: English\n  Scenario: S\n    Wir prüfen.\n    Dann erst der Step.\n    Given a step\n",
+            "english.feature");
+
+        final Scenario scenario = (Scenario) f.getScenarios().get(0);
+        assertThat(scenario.getDescription()).isEqualTo("Wir prüfen.\nDann erst der Step.\n");
+        assertThat(keywords(scenario.getSteps())).containsExactly("Given");
+    }
+
+    @Test
+    public void outlineWithoutExamplesExportsEmptyDataVariants() {
+        final Feature f = new FeatureParser().parseFeature(
+            "Feature: Outline\n  Scenario Outline: No examples\n    Given a step\n", "outline.feature");
+
+        assertThat(((Scenario) f.getScenarios().get(0)).toPolarionJSON().getString(JSON.DATAVARIANTS)).isEmpty();
+    }
+
+    @Test
+    public void structFactoriesCoverStructNames() {
+        assertThat(GherkinStruct.STRUCT_FACTORIES).containsKeys(GherkinStruct.STRUCT_NAMES.toArray(new String[0]));
+        GherkinStruct.STRUCT_NAMES.forEach(name ->
+            assertThat(GherkinStruct.STRUCT_FACTORIES.get(name).get().getClass().getSimpleName()).isEqualTo(name));
+    }
+
+    private static final String MIXED_LINE_ENDINGS = "Feature: Mixed\r\n\r\n"
+        + "  Scenario: First\r"
+        + "    Given a doc string\n"
+        + "      \"\"\"\r\n"
+        + "      line 1\r"
+        + "      \"\"\"\n"
+        + "  Scenario: Second\r\n"
+        + "    When something happens";
+
+    private static void assertMixedLineEndingsParsed(final Feature f) {
+        assertThat(f.getFileName()).isEqualTo("mixed.feature");
+        assertThat(f.getScenarios()).hasSize(2);
+        assertThat(((Scenario) f.getScenarios().get(0)).getSteps().get(0).getLines())
+            .containsExactly("Given a doc string", "      \"\"\"", "      line 1", "      \"\"\"");
+        assertThat(((Scenario) f.getScenarios().get(1)).getSteps()).hasSize(1);
+    }
+
+    @Test
+    public void parseFromReaderWithMixedLineEndings() {
+        assertMixedLineEndingsParsed(
+            new FeatureParser().parseFeature(new StringReader(MIXED_LINE_ENDINGS), "mixed.feature"));
+    }
+
+    @Test
+    public void parseFromCharSequenceWithMixedLineEndings() {
+        assertMixedLineEndingsParsed(
+            new FeatureParser().parseFeature(CharBuffer.wrap(MIXED_LINE_ENDINGS + "\r\n"), "mixed.feature"));
+    }
+
+    @Test
+    public void parseErrorReportsLine() {
+        assertThatThrownBy(() -> new FeatureParser()
+            .parseFeature(new StringReader("Feature: F\n  Scenario: S\n    Given x\n    Examples:\n"), "f.feature"))
+            .isInstanceOf(FeatureParserException.class)
+            .hasMessageContaining("line 4")
+            .hasMessageContaining("f.feature");
+    }
 }
@@ -0,0 +1,54 @@
+package de.gematik.gherkin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.gematik.gherkin.model.Feature;
+import de.gematik.gherkin.model.Scenario;
+import de.gematik.gherkin.model.Tag;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TestGherkinStruct {
+
+    private static Scenario scenarioWithTags(final String... tags) {
+        final Feature feature = new Feature();
+        feature.addTags(List.of(Tag.fromString("@Product:IDP"), Tag.fromString("@Ready")));
+        final Scenario scenario = new Scenario();
+        scenario.setFeature(feature);
+        for (final String tag : tags) {
+            scenario.addTags(List.of(Tag.fromString(tag)));
+        }
+        return scenario;
+    }
+
+    @Test
+    public void testTagLookupFallsBackToFeature() {
+        final Scenario scenario = scenarioWithTags("@PRIO:1", "@Ready");
+
+        assertThat(scenario.getTag("@PRIO").getParameter()).isEqualTo("1");
+        assertThat(scenario.hasTag("@Product")).isTrue();
+        assertThat(scenario.getTag("@Product").getParameter()).isEqualTo("IDP");
+        assertThat(scenario.hasTag("@Negative")).isFalse();
+        assertThat(scenario.getTag("@Negative")).isNull();
+    }
+
+    @Test
+    public void testTagParameters() {
+        final Scenario scenario = scenarioWithTags("@Afo:A_1", "@Ready", "@Afo:A_2");
+
+        assertThat(scenario.getTagParameters("@Afo")).containsExactly("A_1", "A_2");
+        assertThat(scenario.getTagParameters("@Product")).isEmpty();
+        assertThat(scenario.getTags()).hasSize(3);
+    }
+
+    @Test
+    public void testSetTagsRebuildsIndex() {
+        final Scenario scenario = scenarioWithTags("@Afo:A_1");
+        scenario.setTags(List.of(Tag.fromString("@Afo:A_3")));
+
+        assertThat(scenario.getTagParameters("@Afo")).containsExactly("A_3");
+        assertThatThrownBy(() -> scenario.getTags().add(Tag.fromString("@Afo:A_4")))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -26,6 +26,19 @@ public class TestAfoCucumberTestParser {
             .isEqualTo("disc---discovery-dokument-muss-signiert-sein");
     }
 
+    @Test
+    public void parseCucumberFeaturesParallelSameAsSequential() {
+        final AfoCucumberTestParser sequential = new AfoCucumberTestParser();
+        final AfoCucumberTestParser parallel = new AfoCucumberTestParser(4);
+
+        sequential.parseDirectory(Paths.get("src", "test", "resources").toFile());
+        parallel.parseDirectory(Paths.get("src", "test", "resources").toFile());
+
+        assertThat(parallel.getParsedTestcasesPerAfo()).isEqualTo(sequential.getParsedTestcasesPerAfo());
+        assertThat(parallel.getParsedTestcases()).isEqualTo(sequential.getParsedTestcases());
+        assertThat(parallel.getTestcasesWithoutAfo()).isEqualTo(sequential.getTestcasesWithoutAfo());
+    }
+
     @Test
     public void parseCucumberFeaturesInvalidRoot() {
         final AfoCucumberTestParser parser = new AfoCucumberTestParser();
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TestAfoIndex {
+
+    private static Testcase testcase(final String clazz, final String method) {
+        final Testcase tc = new Testcase();
+        tc.setClazz(clazz);
+        tc.setMethod(method);
+        return tc;
+    }
+
+    @Test
+    void testActiveAfosExcludeDeleted() {
+        final AfoData afo1 = new AfoData("A_1", "afo1");
+        final AfoData afo2 = new AfoData("A_2", "afo2");
+        afo2.setAfoStatus(AfoStatus.DELETED);
+        final AfoData afo3 = new AfoData("A_3", "afo3");
+        afo3.setAfoStatus(AfoStatus.ADDED);
+
+        final AfoIndex index = new AfoIndex(List.of(afo1, afo2, afo3));
+
+        assertThat(index.getActiveAfos()).containsExactly(afo1, afo3);
+        assertThat(index.contains("A_2")).isTrue();
+        assertThat(index.get("A_3")).isSameAs(afo3);
+        assertThat(index.get("A_4")).isNull();
+    }
+
+    @Test
+    void testFindOrphans() {
+        final AfoIndex index = new AfoIndex(List.of(new AfoData("A_1", "afo1")));
+
+        final List<OrphanedAfo> orphans = index.findOrphans(Map.of(
+            "A_1", List.of(testcase("Clazz", "method1")),
+            "A_9", List.of(testcase("Clazz", "method2"), testcase("Other", "method3")),
+            "A_5", List.of(testcase("Clazz", "method4"))));
+
+        assertThat(orphans).hasSize(2);
+        assertThat(orphans.get(0).getId()).isEqualTo("A_5");
+        assertThat(orphans.get(0).getTestcases()).containsExactly("Clazz:method4");
+        assertThat(orphans.get(1).getId()).isEqualTo("A_9");
+        assertThat(orphans.get(1).getTestcases()).containsExactly("Clazz:method2", "Other:method3");
+    }
+}
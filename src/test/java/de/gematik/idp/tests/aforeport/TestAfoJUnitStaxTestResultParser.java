@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestAfoJUnitStaxTestResultParser {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void testJunitResultParseSameAsDom() {
+        final Map<TestKey, TestResult> domResults = new HashMap<>();
+        new AfoJUnitTestResultParser()
+            .parseDirectoryForResults(domResults, Paths.get("src", "test", "resources", "junit").toFile());
+
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        new AfoJUnitStaxTestResultParser()
+            .parseDirectoryForResults(results, Paths.get("src", "test", "resources", "junit").toFile());
+
+        assertThat(results.keySet()).hasSize(357);
+        assertThat(results).isEqualTo(domResults);
+    }
+
+    @Test
+    void testJunitResultParseOutputOnlyIsPassed() throws IOException {
+        Files.writeString(tmp.resolve("TEST-Output.xml"),
+            "<testsuite name=\"suite\"><testcase classname=\"Clazz\" name=\"method\">\n"
+                + "  <system-out><![CDATA[line1\nline2]]></system-out>\n"
+                + "</testcase><system-out>suite output</system-out></testsuite>",
+            StandardCharsets.UTF_8);
+
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        new AfoJUnitStaxTestResultParser().parseDirectoryForResults(results, tmp.toFile());
+
+        assertThat(results.keySet()).containsExactly(TestKey.of("Clazz", "method"));
+        assertThat(results.get(TestKey.of("Clazz", "method")).getStatus()).isEqualTo(Result.PASSED);
+        assertThat(results.get(TestKey.of("Clazz", "method")).getSuite()).isEqualTo("suite");
+        assertThat(results.get(TestKey.of("Clazz", "method")).getErrsysout().getText()).isEqualTo("line1\nline2");
+    }
+
+    @Test
+    void testJunitResultParseTruncatedFile() throws IOException {
+        Files.writeString(tmp.resolve("TEST-Truncated.xml"),
+            "<testsuite name=\"suite\"><testcase classname=\"Clazz\" name=\"method1\">"
+                + "<failure message=\"msg\" type=\"java.lang.AssertionError\">details</failure></testcase>"
+                + "<testcase classname=\"Clazz\" name=\"method2\"><system-out>cut off he",
+            StandardCharsets.UTF_8);
+
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        new AfoJUnitStaxTestResultParser().parseDirectoryForResults(results, tmp.toFile());
+
+        assertThat(results.keySet()).containsExactly(TestKey.of("Clazz", "method1"));
+        assertThat(results.get(TestKey.of("Clazz", "method1")).getStatus()).isEqualTo(Result.FAILED);
+        assertThat(results.get(TestKey.of("Clazz", "method1")).getErrmessage()).isEqualTo("msg");
+        assertThat(results.get(TestKey.of("Clazz", "method1")).getErrdetails()).isEqualTo("details");
+    }
+
+    private void writeOutputResult() throws IOException {
+        Files.writeString(tmp.resolve("TEST-Output.xml"),
+            "<testsuites><testsuite name=\"suite\">"
+                + "<testcase classname=\"Clazz\" name=\"method1\"><system-out>first</system-out></testcase>"
+                + "<testcase classname=\"Clazz\" name=\"method2\">"
+                + "<system-out>0123456789</system-out><system-err><![CDATA[abc]]>def</system-err></testcase>"
+                + "</testsuite></testsuites>",
+            StandardCharsets.UTF_8);
+    }
+
+    private TestResult parseOutputResult(final CapturePolicy policy) {
+        final AfoJUnitStaxTestResultParser parser = new AfoJUnitStaxTestResultParser();
+        parser.setCapturePolicy(policy);
+        parser.setCaptureLimit(4);
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        parser.parseDirectoryForResults(results, tmp.toFile());
+        return results.get(TestKey.of("Clazz", "method2"));
+    }
+
+    @Test
+    void testCaptureNone() throws IOException {
+        writeOutputResult();
+        final TestResult tr = parseOutputResult(CapturePolicy.NONE);
+
+        assertThat(tr.getStatus()).isEqualTo(Result.PASSED);
+        assertThat(tr.getErrsysout()).isNull();
+        assertThat(tr.getErrsyserr()).isNull();
+    }
+
+    @Test
+    void testCaptureHeadAndTail() throws IOException {
+        writeOutputResult();
+
+        assertThat(parseOutputResult(CapturePolicy.HEAD).getErrsysout().getText())
+            .isEqualTo("0123" + CapturedOutput.TRUNCATED_MARKER);
+        assertThat(parseOutputResult(CapturePolicy.TAIL).getErrsysout().getText())
+            .isEqualTo(CapturedOutput.TRUNCATED_MARKER + "6789");
+        assertThat(parseOutputResult(CapturePolicy.HEAD).getErrsyserr().getText())
+            .isEqualTo("abcd" + CapturedOutput.TRUNCATED_MARKER);
+    }
+
+    @Test
+    void testCaptureLazy() throws IOException {
+        writeOutputResult();
+        final TestResult tr = parseOutputResult(CapturePolicy.LAZY);
+
+        assertThat(tr.getErrsysout().isLazy()).isTrue();
+        assertThat(tr.getErrsysout().getText()).isEqualTo("0123456789");
+        assertThat(tr.getErrsyserr().getText()).isEqualTo("abcdef");
+    }
+
+    @Test
+    void testCaptureLazyReadsOnlyItsRange() throws IOException {
+        writeOutputResult();
+        final CapturedOutput output = parseOutputResult(CapturePolicy.LAZY).getErrsysout();
+
+        final Path file = tmp.resolve("TEST-Output.xml");
+        final byte[] content = Files.readAllBytes(file);
+        Arrays.fill(content, 0, (int) output.getStart(), (byte) ' ');
+        Files.write(file, content);
+        assertThat(output.getText()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void testCaptureLazySkipsMarkup() throws IOException {
+        Files.writeString(tmp.resolve("TEST-Output.xml"),
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- <testcase> -->\n"
+                + "<testsuite name=\"suite\"><testcase classname=\"Clazz\" name=\"method1\">"
+                + "<failure message=\"a/>b\"><system-out>nested</system-out></failure>"
+                + "<system-out/><system-err>&lt;\u00e4&gt;<![CDATA[</system-err>]]></system-err></testcase>"
+                + "<testcase classname=\"Clazz\" name=\"method2\"><system-out>second</system-out></testcase>"
+                + "</testsuite>",
+            StandardCharsets.UTF_8);
+        final AfoJUnitStaxTestResultParser parser = new AfoJUnitStaxTestResultParser();
+        parser.setCapturePolicy(CapturePolicy.LAZY);
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        parser.parseDirectoryForResults(results, tmp.toFile());
+
+        final TestResult first = results.get(TestKey.of("Clazz", "method1"));
+        assertThat(first.getErrsysout().getText()).isEmpty();
+        assertThat(first.getErrsyserr().getText()).isEqualTo("<\u00e4></system-err>");
+        assertThat(results.get(TestKey.of("Clazz", "method2")).getErrsysout().getText()).isEqualTo("second");
+    }
+
+    @Test
+    void testCaptureLazySameAsDom() throws IOException {
+        writeOutputResult();
+        final AfoJUnitTestResultParser domParser = new AfoJUnitTestResultParser();
+        domParser.setCapturePolicy(CapturePolicy.LAZY);
+        final Map<TestKey, TestResult> domResults = new HashMap<>();
+        domParser.parseDirectoryForResults(domResults, tmp.toFile());
+
+        // only the captured output is compared, as the status of test cases with output only differs by design
+        final TestResult tr = parseOutputResult(CapturePolicy.LAZY);
+        final TestResult domTr = domResults.get(TestKey.of("Clazz", "method2"));
+        assertThat(tr.getErrsysout()).isEqualTo(domTr.getErrsysout());
+        assertThat(tr.getErrsyserr()).isEqualTo(domTr.getErrsyserr());
+        assertThat(domTr.getErrsyserr().getText()).isEqualTo("abcdef");
+    }
+}
@@ -2,10 +2,17 @@ package de.gematik.idp.tests.aforeport;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class TestAfoJUnitTestResultParser {
 
@@ -13,12 +20,13 @@ class TestAfoJUnitTestResultParser {
     void testJunitResultParseOK() {
         final AfoJUnitTestResultParser parser = new AfoJUnitTestResultParser();
 
-        final Map<String, TestResult> results = new HashMap<>();
+        final Map<TestKey, TestResult> results = new HashMap<>();
         parser.parseDirectoryForResults(results, Paths.get("src", "test", "resources", "junit").toFile());
 
         assertThat(results.keySet()).hasSize(357);
         assertThat(
-            results.get("de.gematik.idp.tests.aforeport.TestAfoJUnitTestResultParser:testJunitResultParseOK").status)
+            results.get(TestKey.of("de.gematik.idp.tests.aforeport.TestAfoJUnitTestResultParser",
+                "testJunitResultParseOK")).status)
             .isEqualTo(Result.FAILED);
     }
 
@@ -26,9 +34,47 @@ class TestAfoJUnitTestResultParser {
     public void parseJUnitResultsInvalidRoot() {
         final AfoJUnitTestResultParser parser = new AfoJUnitTestResultParser();
 
-        final Map<String, TestResult> results = new HashMap<>();
+        final Map<TestKey, TestResult> results = new HashMap<>();
         parser.parseDirectoryForResults(results, Paths.get("src", "test", "resources", "bdd-NonExisting").toFile());
 
         assertThat(results.keySet()).hasSize(0);
     }
+
+    @Test
+    void parseJUnitResultsParallelSameAsSequential() {
+        final List<File> dirs = List.of(Paths.get("src", "test", "resources", "junit").toFile());
+        final Map<TestKey, TestResult> sequential = new HashMap<>();
+        new AfoJUnitTestResultParser().parseDirectoriesForResults(sequential, dirs, 1);
+
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        new AfoJUnitTestResultParser().parseDirectoriesForResults(results, dirs, 4);
+
+        assertThat(results).hasSize(357).isEqualTo(sequential);
+    }
+
+    @Test
+    void parseJUnitResultsLastFileWins(@TempDir final Path tmp) throws IOException {
+        final Path dir1 = Files.createDirectory(tmp.resolve("module1"));
+        final Path dir2 = Files.createDirectory(tmp.resolve("module2"));
+        writeResult(dir1.resolve("TEST-A.xml"), "<skipped/>");
+        writeResult(dir1.resolve("TEST-B.xml"), "<failure message=\"msg\"/>");
+        writeResult(dir2.resolve("TEST-A.xml"), "<error message=\"msg\"/>");
+
+        for (int i = 0; i < 5; i++) {
+            final Map<TestKey, TestResult> results = new HashMap<>();
+            new AfoJUnitTestResultParser()
+                .parseDirectoriesForResults(results, List.of(dir1.toFile(), dir2.toFile()), 3);
+            assertThat(results.get(TestKey.of("Clazz", "method")).getStatus()).isEqualTo(Result.ERROR);
+
+            results.clear();
+            new AfoJUnitTestResultParser()
+                .parseDirectoriesForResults(results, List.of(dir2.toFile(), dir1.toFile()), 3);
+            assertThat(results.get(TestKey.of("Clazz", "method")).getStatus()).isEqualTo(Result.FAILED);
+        }
+    }
+
+    private void writeResult(final Path file, final String detail) throws IOException {
+        Files.writeString(file, "<testsuite name=\"suite\"><testcase classname=\"Clazz\" name=\"method\">"
+            + detail + "</testcase></testsuite>", StandardCharsets.UTF_8);
+    }
 }
@@ -3,6 +3,8 @@ package de.gematik.idp.tests.aforeport;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import de.gematik.idp.tests.Afo;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
@@ -23,4 +25,38 @@ class TestAfoJavaTestParser {
         assertThat(tcs.get("A_20315-01").get(0).getMethod()).isEqualTo("testParseTestSourcesOK");
     }
 
+    @Test
+    void testParseTestSourcesParallelSameAsSequential() {
+        final AfoJavaTestParser sequential = new AfoJavaTestParser();
+        final AfoJavaTestParser parallel = new AfoJavaTestParser(4);
+
+        sequential.parseDirectory(Paths.get("src", "test").toFile());
+        parallel.parseDirectory(Paths.get("src", "test").toFile());
+
+        assertThat(parallel.getParsedTestcasesPerAfo()).isEqualTo(sequential.getParsedTestcasesPerAfo());
+        assertThat(parallel.getParsedTestcases()).isEqualTo(sequential.getParsedTestcases());
+        assertThat(parallel.getTestcasesWithoutAfo()).isEqualTo(sequential.getTestcasesWithoutAfo());
+    }
+
+    private static boolean containsTestAnnotation(final String source) {
+        return AfoJavaTestParser.containsAnnotation(ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8)), "Test");
+    }
+
+    @Test
+    void testContainsAnnotation() {
+        assertThat(containsTestAnnotation("@Test void x() {}")).isTrue();
+        assertThat(containsTestAnnotation("class A {\n  @ Test\n void x() {}}")).isTrue();
+        assertThat(containsTestAnnotation("@TestFactory void x() {}")).isFalse();
+        assertThat(containsTestAnnotation("class TestHelper {}")).isFalse();
+        assertThat(containsTestAnnotation("@Tes")).isFalse();
+    }
+
+    @Test
+    void testContainsAnnotationWithinBufferBounds() {
+        final ByteBuffer content = ByteBuffer.wrap("@Test @Tes".getBytes(StandardCharsets.UTF_8));
+        content.position(6);
+        assertThat(AfoJavaTestParser.containsAnnotation(content, "Test")).isFalse();
+        content.position(0).limit(5);
+        assertThat(AfoJavaTestParser.containsAnnotation(content, "Test")).isTrue();
+    }
 }
@@ -23,6 +23,7 @@ import static de.gematik.idp.tests.aforeport.Result.SKIPPED;
 import static de.gematik.idp.tests.aforeport.Result.UNKNOWN;
 import static de.gematik.idp.tests.aforeport.Result.values;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -444,4 +445,15 @@ class TestAfoReporter {
 
         assertThat(Paths.get("target", "site", "serenity", "aforeport.html").toFile()).exists();
     }
+
+    @Test
+    public void testMissingRequirementsFileCancelsParsing() {
+        final AfoReporter reporter = new AfoReporter();
+        reporter.testRoot = Collections.singletonList(Paths.get("src").toFile().getAbsolutePath());
+        reporter.afofile = Paths.get("src", "test", "resources", "missing.json").toFile().getAbsolutePath();
+
+        assertThatThrownBy(reporter::run)
+            .isInstanceOf(AfoReporterException.class)
+            .hasMessageStartingWith("Unable to find file");
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestAfoSerenityStreamingTestResultParser {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void parseSerenityResultsSameAsJsonObject() {
+        final Map<TestKey, TestResult> jsonResults = new HashMap<>();
+        new AfoSerenityTestResultParser()
+            .parseDirectoryForResults(jsonResults, Paths.get("src", "test", "resources", "bdd").toFile());
+
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        new AfoSerenityStreamingTestResultParser()
+            .parseDirectoryForResults(results, Paths.get("src", "test", "resources", "bdd").toFile());
+
+        assertThat(results).hasSize(2).isEqualTo(jsonResults);
+    }
+
+    @Test
+    void parseSerenityResultWithFailureCause() throws IOException {
+        Files.writeString(tmp.resolve("result.json"),
+            "{\"testSteps\": [{\"description\": \"step\", \"children\": [{\"result\": \"SUCCESS\"}]}],"
+                + "\"id\": \"feature;scenario\", \"title\": \"Scenario\", \"result\": \"FAILURE\","
+                + "\"userStory\": {\"id\": \"feature\", \"storyName\": \"Feature\", \"path\": \"a.feature\"},"
+                + "\"testFailureCause\": {\"errorType\": \"java.lang.AssertionError\", \"message\": \"expected\","
+                + "\"stackTrace\": [{\"declaringClass\": \"Clazz\"}]}}",
+            StandardCharsets.UTF_8);
+
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        new AfoSerenityStreamingTestResultParser().parseDirectoryForResults(results, tmp.toFile());
+
+        final TestResult tr = results.get(TestKey.of("feature", "scenario"));
+        assertThat(tr.getStatus()).isEqualTo(Result.FAILED);
+        assertThat(tr.getFeatureName()).isEqualTo("Feature");
+        assertThat(tr.getScenarioName()).isEqualTo("Scenario");
+        assertThat(tr.getPath()).isEqualTo("a.feature");
+        assertThat(tr.getErrmessage()).isEqualTo("expected");
+        assertThat(tr.getErrtype()).isEqualTo("java.lang.AssertionError");
+    }
+
+    @Test
+    void parseSerenityResultMissingFieldIsSkipped() throws IOException {
+        Files.writeString(tmp.resolve("result.json"),
+            "{\"id\": \"feature;scenario\", \"result\": \"SUCCESS\", \"userStory\": {\"storyName\": \"Feature\"}}",
+            StandardCharsets.UTF_8);
+
+        final Map<TestKey, TestResult> results = new HashMap<>();
+        new AfoSerenityStreamingTestResultParser().parseDirectoryForResults(results, tmp.toFile());
+
+        assertThat(results).isEmpty();
+    }
+}
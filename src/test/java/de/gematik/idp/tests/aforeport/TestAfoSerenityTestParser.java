@@ -13,19 +13,21 @@ public class TestAfoSerenityTestParser {
     public void parseSerenityResultsOK() {
         final AfoSerenityTestResultParser parser = new AfoSerenityTestResultParser();
 
-        final Map<String, TestResult> results = new HashMap<>();
+        final Map<TestKey, TestResult> results = new HashMap<>();
         parser.parseDirectoryForResults(results, Paths.get("src", "test", "resources", "bdd").toFile());
 
         assertThat(results).containsOnlyKeys(
-            "fordere-access-token-mittels-sso-token-an:gettoken-mit-sso-token---veralteter-sso-token-wird-abgelehnt",
-            "fordere-access-token-mit-einer-signierten-challenge-an:gettoken-signierte-challenge---veralteter-token-code-wird-abgelehnt");
+            TestKey.of("fordere-access-token-mittels-sso-token-an",
+                "gettoken-mit-sso-token---veralteter-sso-token-wird-abgelehnt"),
+            TestKey.of("fordere-access-token-mit-einer-signierten-challenge-an",
+                "gettoken-signierte-challenge---veralteter-token-code-wird-abgelehnt"));
     }
 
     @Test
     public void parseSerenityResultsInvalidRoot() {
         final AfoSerenityTestResultParser parser = new AfoSerenityTestResultParser();
 
-        final Map<String, TestResult> results = new HashMap<>();
+        final Map<TestKey, TestResult> results = new HashMap<>();
         parser.parseDirectoryForResults(results, Paths.get("src", "test", "resources", "bdd-NonExisting").toFile());
 
         assertThat(results.keySet()).hasSize(0);
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class TestAfoStatistics {
+
+    private static AfoData afo(final Result status, final int testcases) {
+        final AfoData afo = new AfoData("A_" + status, "afo");
+        afo.setStatus(status);
+        afo.setResults(new ArrayList<>(Collections.nCopies(testcases, new TestResult())));
+        return afo;
+    }
+
+    @Test
+    void testCountsAndPercentages() {
+        final AfoData deleted = afo(Result.UNKNOWN, 0);
+        deleted.setAfoStatus(AfoStatus.DELETED);
+        final AfoStatistics stats = AfoStatistics.builder()
+            .add(afo(Result.PASSED, 2))
+            .add(afo(Result.PASSED, 1))
+            .add(afo(Result.FAILED, 1))
+            .add(afo(Result.UNKNOWN, 0))
+            .add(deleted)
+            .add(new AfoData("A_X", "without status"))
+            .build();
+
+        assertThat(stats.getCount(Result.PASSED)).isEqualTo(2);
+        assertThat(stats.getCount(Result.FAILED)).isEqualTo(1);
+        assertThat(stats.getCount(Result.ERROR)).isZero();
+        assertThat(stats.getCount(Result.UNKNOWN)).isEqualTo(2);
+        assertThat(stats.getDeletedUnknown()).isEqualTo(1);
+        assertThat(stats.getRealUnknown()).isEqualTo(1);
+        assertThat(stats.getSum()).isEqualTo(4);
+        assertThat(stats.getTotal()).isEqualTo(5);
+        assertThat(stats.getTestcases()).isEqualTo(4);
+        assertThat(stats.getPercentage(Result.PASSED)).isEqualTo(0.5);
+        assertThat(stats.getPercentage(Result.UNKNOWN)).isEqualTo(0.25);
+    }
+
+    @Test
+    void testEmptyStatistics() {
+        final AfoStatistics stats = AfoStatistics.builder().build();
+        assertThat(stats.getSum()).isZero();
+        assertThat(stats.getPercentage(Result.PASSED)).isZero();
+    }
+
+    @Test
+    void testCountsAreImmutable() {
+        final AfoStatistics stats = AfoStatistics.builder().add(afo(Result.PASSED, 0)).build();
+        assertThatThrownBy(() -> stats.getCounts().put(Result.PASSED, 5))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
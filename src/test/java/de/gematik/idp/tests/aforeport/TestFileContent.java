@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestFileContent {
+
+    @Test
+    void testSmallFileReadToHeap(@TempDir final Path dir) throws IOException {
+        final Path file = Files.writeString(dir.resolve("small.txt"), "Grüße", StandardCharsets.UTF_8);
+        final ByteBuffer bytes = FileContent.bytes(file.toFile());
+        assertThat(bytes.isDirect()).isFalse();
+        assertThat(bytes.isReadOnly()).isTrue();
+        assertThat(bytes.remaining()).isEqualTo(7);
+        assertThat(text(FileContent.reader(bytes))).isEqualTo("Grüße");
+        assertThat(bytes.position()).isZero();
+    }
+
+    @Test
+    void testLargeFileMapped(@TempDir final Path dir) throws IOException {
+        final String line = "äöü line\r\n";
+        final String content = line.repeat(FileContent.MAP_THRESHOLD / line.length() + 1);
+        final Path file = Files.writeString(dir.resolve("large.txt"), content, StandardCharsets.UTF_8);
+        final ByteBuffer bytes = FileContent.bytes(file.toFile());
+        assertThat(bytes.isDirect()).isTrue();
+        assertThat(bytes.remaining()).isEqualTo((int) Files.size(file));
+        assertThat(text(FileContent.reader(file.toFile()))).isEqualTo(content);
+        try (final InputStream in = FileContent.stream(bytes)) {
+            assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(file));
+        }
+        assertThat(bytes.position()).isZero();
+    }
+
+    @Test
+    void testByteOrderMarkSkipped(@TempDir final Path dir) throws IOException {
+        final Path file = Files.write(dir.resolve("bom.txt"),
+            new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a', 'b'});
+        assertThat(text(FileContent.reader(file.toFile()))).isEqualTo("ab");
+    }
+
+    @Test
+    void testEmptyFile(@TempDir final Path dir) throws IOException {
+        final Path file = Files.write(dir.resolve("empty.txt"), new byte[0]);
+        assertThat(FileContent.bytes(file.toFile()).remaining()).isZero();
+        assertThat(text(FileContent.reader(file.toFile()))).isEmpty();
+    }
+
+    @Test
+    void testReaderDecodesIncrementally() throws IOException {
+        final char[] buf = new char[3];
+        final ByteBuffer bytes = ByteBuffer.wrap("äbcdef".getBytes(StandardCharsets.UTF_8));
+        try (final Reader reader = FileContent.reader(bytes)) {
+            assertThat(reader.read(buf)).isEqualTo(3);
+        }
+        assertThat(buf).containsExactly('ä', 'b', 'c');
+        assertThat(bytes.position()).isZero();
+    }
+
+    @Test
+    void testMalformedInputReplaced() throws IOException {
+        final ByteBuffer bytes = ByteBuffer.wrap(new byte[]{'a', (byte) 0xC3, 'b'});
+        assertThat(text(FileContent.reader(bytes))).isEqualTo("a\uFFFDb");
+    }
+
+    @Test
+    void testStreamOnFile(@TempDir final Path dir) throws IOException {
+        final Path file = Files.writeString(dir.resolve("stream.txt"), "abc", StandardCharsets.UTF_8);
+        try (final InputStream in = FileContent.stream(file.toFile())) {
+            assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(file));
+        }
+    }
+
+    private static String text(final Reader reader) throws IOException {
+        try (final Reader in = reader) {
+            final StringWriter out = new StringWriter();
+            in.transferTo(out);
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestFileTreeWalker {
+
+    @TempDir
+    Path root;
+
+    private static void touch(final Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, file.getFileName().toString());
+    }
+
+    private List<String> relative(final FileTreeWalker walker) {
+        return walker.walk(root.toFile())
+            .map(f -> root.relativize(f.toPath()).toString().replace(File.separatorChar, '/'))
+            .collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    void createTree() throws IOException {
+        touch(root.resolve("b/B.java"));
+        touch(root.resolve("b/a/A.java"));
+        touch(root.resolve("a.feature"));
+        touch(root.resolve("A.java"));
+        touch(root.resolve("target/classes/Gen.java"));
+        touch(root.resolve("node_modules/x/X.java"));
+        touch(root.resolve("c/skip/S.java"));
+    }
+
+    @Test
+    void testWalkSortedDepthFirst() {
+        assertThat(relative(FileTreeWalker.including("*.java")))
+            .containsExactly("A.java", "b/B.java", "b/a/A.java", "c/skip/S.java", "node_modules/x/X.java",
+                "target/classes/Gen.java");
+    }
+
+    @Test
+    void testWalkFilesAndFoldersSortedTogether() throws IOException {
+        touch(root.resolve("b.java"));
+        touch(root.resolve("b/C.java"));
+        assertThat(relative(FileTreeWalker.including("*.java").excluding(FileTreeWalker.DEFAULT_EXCLUDES)))
+            .containsExactly("A.java", "b/B.java", "b/C.java", "b/a/A.java", "b.java", "c/skip/S.java");
+    }
+
+    @Test
+    void testWalkIsLazy() throws IOException {
+        final Iterator<File> files = FileTreeWalker.including("*.java").walk(root.toFile()).iterator();
+        assertThat(files.next().getName()).isEqualTo("A.java");
+
+        // folder c is only listed when the walk reaches it
+        touch(root.resolve("c/late/L.java"));
+        final List<String> names = new ArrayList<>();
+        files.forEachRemaining(f -> names.add(f.getName()));
+        assertThat(names).containsExactly("B.java", "A.java", "L.java", "S.java", "X.java", "Gen.java");
+    }
+
+    @Test
+    void testWithoutFollowingLinks() throws IOException {
+        try {
+            Files.createSymbolicLink(root.resolve("link.java"), root.resolve("A.java"));
+        } catch (final UnsupportedOperationException | IOException e) {
+            // file system without symbolic links, nothing to test
+            return;
+        }
+        assertThat(relative(FileTreeWalker.including("*.java").maxDepth(1))).containsExactly("A.java", "link.java");
+        assertThat(relative(FileTreeWalker.including("*.java").maxDepth(1).followLinks(false)))
+            .containsExactly("A.java");
+    }
+
+    @Test
+    void testExcludes() {
+        final List<String> excludes = new ArrayList<>(FileTreeWalker.DEFAULT_EXCLUDES);
+        excludes.add("c/skip");
+        assertThat(relative(FileTreeWalker.including("*.java").excluding(excludes)))
+            .containsExactly("A.java", "b/B.java", "b/a/A.java");
+    }
+
+    @Test
+    void testMaxDepth() {
+        assertThat(relative(FileTreeWalker.including().maxDepth(1))).containsExactly("A.java", "a.feature");
+    }
+
+    @Test
+    void testSymbolicLinkLoopSkipped() throws IOException {
+        try {
+            Files.createSymbolicLink(root.resolve("b/a/loop"), root.resolve("b"));
+        } catch (final UnsupportedOperationException | IOException e) {
+            // file system without symbolic links, nothing to test
+            return;
+        }
+        assertThat(relative(FileTreeWalker.including("*.java").excluding(FileTreeWalker.DEFAULT_EXCLUDES)))
+            .containsExactly("A.java", "b/B.java", "b/a/A.java", "c/skip/S.java");
+        assertThat(relative(FileTreeWalker.including("B.java"))).containsExactly("b/B.java");
+    }
+
+    @Test
+    void testInvalidRootDir() {
+        assertThat(FileTreeWalker.including().walk(root.resolve("missing").toFile())).isEmpty();
+        assertThat(FileTreeWalker.including().walk(null)).isEmpty();
+    }
+
+    @Test
+    void testParseInFileOrder() {
+        final List<String> names = new ArrayList<>();
+        FileTreeWalker.parse(FileTreeWalker.including("*.java").excluding(FileTreeWalker.DEFAULT_EXCLUDES)
+            .walk(root.toFile()), File::getName, 3, "java files", names::add);
+        assertThat(names).containsExactly("A.java", "B.java", "A.java", "S.java");
+    }
+
+    @Test
+    void testParseFailureRethrown() {
+        assertThatThrownBy(() -> FileTreeWalker.parse(FileTreeWalker.including("*.java").walk(root.toFile()),
+            f -> {
+                throw new AfoReporterException("broken " + f.getName());
+            }, 2, "java files", x -> {
+            }))
+            .isInstanceOf(AfoReporterException.class)
+            .hasMessage("broken A.java");
+    }
+}
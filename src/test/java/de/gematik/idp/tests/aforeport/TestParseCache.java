@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestParseCache {
+
+    @TempDir
+    Path tmp;
+
+    private final AtomicInteger parseCalls = new AtomicInteger();
+
+    private File createInput(final String content, final long ageMs) throws IOException {
+        final File input = tmp.resolve("TEST-input.xml").toFile();
+        Files.writeString(input.toPath(), content, StandardCharsets.UTF_8);
+        assertThat(input.setLastModified(System.currentTimeMillis() - ageMs)).isTrue();
+        return input;
+    }
+
+    private List<TestResult> parse(final File f) {
+        parseCalls.incrementAndGet();
+        final TestResult tr = new TestResult();
+        tr.setClazz("de.gematik.Clazz");
+        tr.setMethod("method" + parseCalls.get());
+        tr.setStatus(Result.FAILED);
+        tr.setErrmessage("message");
+        return List.of(tr);
+    }
+
+    private ParseCache<TestResult> openCache(final String version) {
+        return ParseCache.open(tmp.resolve("cache").toFile(), "results.cache", ParseCache.TEST_RESULT_CODEC, version);
+    }
+
+    @Test
+    void testUnchangedFileIsLoadedFromCache() throws IOException {
+        final File input = createInput("<testsuite/>", 10000);
+        final ParseCache<TestResult> cache = openCache("1.0");
+        cache.get(input, this::parse);
+        cache.save();
+
+        final List<TestResult> results = openCache("1.0").get(input, this::parse);
+
+        assertThat(parseCalls.get()).isEqualTo(1);
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getMethod()).isEqualTo("method1");
+        assertThat(results.get(0).getStatus()).isEqualTo(Result.FAILED);
+        assertThat(results.get(0).getErrmessage()).isEqualTo("message");
+        assertThat(results.get(0).getErrdetails()).isNull();
+    }
+
+    @Test
+    void testModifiedFileIsParsedAgain() throws IOException {
+        final File input = createInput("<testsuite/>", 10000);
+        final ParseCache<TestResult> cache = openCache("1.0");
+        cache.get(input, this::parse);
+        cache.save();
+        createInput("<testsuite name=\"changed\"/>", 5000);
+
+        final List<TestResult> results = openCache("1.0").get(input, this::parse);
+
+        assertThat(parseCalls.get()).isEqualTo(2);
+        assertThat(results.get(0).getMethod()).isEqualTo("method2");
+    }
+
+    @Test
+    void testCacheOfOtherVersionIsDiscarded() throws IOException {
+        final File input = createInput("<testsuite/>", 10000);
+        final ParseCache<TestResult> cache = openCache("1.0");
+        cache.get(input, this::parse);
+        cache.save();
+
+        openCache("1.1").get(input, this::parse);
+
+        assertThat(parseCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testRecentlyModifiedFileIsNotCached() throws IOException {
+        final File input = createInput("<testsuite/>", 0);
+        final ParseCache<TestResult> cache = openCache("1.0");
+        cache.get(input, this::parse);
+        cache.save();
+
+        openCache("1.0").get(input, this::parse);
+
+        assertThat(parseCalls.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.gematik.gherkin.FeatureParser;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.json.JSONArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestPolarionExporter {
+
+    private static final Path BDD = Paths.get("src", "test", "resources", "bdd");
+
+    private static void export(final Path out, final PolarionSharding sharding, final int threads) {
+        final PolarionExporter exporter = new PolarionExporter();
+        exporter.testRoot = List.of(BDD.toString());
+        exporter.outputFolder = out.toString();
+        exporter.sharding = sharding;
+        exporter.threads = threads;
+        exporter.run();
+    }
+
+    private static JSONArray read(final Path file) throws IOException {
+        return new JSONArray(Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    private static List<String> list(final Path folder) {
+        return Arrays.stream(folder.toFile().list()).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    void testExportPerFeature(@TempDir final Path out) throws IOException {
+        export(out, PolarionSharding.FEATURE, 4);
+        assertThat(list(out)).containsExactly("authentication.json", "authorizationWithSignedChallenge.json",
+            "discoveryDocument.json", "germanKeywords.json", "getTokenWithSignedChallenge.json");
+        final FeatureParser parser = new FeatureParser();
+        for (final String name : list(out)) {
+            final File feature = BDD.resolve(name.replace(".json", ".feature")).toFile();
+            assertThat(read(out.resolve(name)).length())
+                .isEqualTo(parser.parseFeatureFile(feature).getScenarios().size());
+        }
+    }
+
+    @Test
+    void testExportPerProduct(@TempDir final Path out) throws IOException {
+        export(out, PolarionSharding.PRODUCT, 2);
+        assertThat(list(out)).contains("IDP-D.json");
+        final JSONArray idpd = read(out.resolve("IDP-D.json"));
+        assertThat(idpd.length()).isPositive();
+        for (int i = 0; i < idpd.length(); i++) {
+            assertThat(idpd.getJSONObject(i).getString("ProduktTyp")).isEqualTo("IDP-D");
+        }
+    }
+
+    @Test
+    void testExportSameForAnyNumberOfThreads(@TempDir final Path out) throws IOException {
+        final Path sequential = out.resolve("sequential");
+        final Path parallel = out.resolve("parallel");
+        export(sequential, PolarionSharding.SINGLE, 1);
+        export(parallel, PolarionSharding.SINGLE, 0);
+        assertThat(list(sequential)).containsExactly("polarion.json");
+        assertThat(Files.readString(parallel.resolve("polarion.json")))
+            .isEqualTo(Files.readString(sequential.resolve("polarion.json")));
+        assertThat(read(sequential.resolve("polarion.json")).length()).isGreaterThan(10);
+    }
+}
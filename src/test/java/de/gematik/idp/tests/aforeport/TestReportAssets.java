@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestReportAssets {
+
+    private static final String HEADER = "<head>\n"
+        + "<link rel=\"icon\" href=\"data:image/x-icon;base64,AAAB\"/>\n"
+        + "<style>body { color: red; }</style>\n"
+        + "</head>";
+    private static final String BODY = "<body>\n"
+        + "<img src=\"data:image/png;base64,iVBORw0K\"/>\n"
+        + "<script>const a = 1;</script>\n"
+        + "<!-- <script>commented();</script> -->\n"
+        + "<script>const slices = [${Slices}];</script>\n"
+        + "<script>const a = 1;</script>\n"
+        + "</body>";
+
+    @Test
+    void testExternalizeAssets() {
+        final ReportAssets assets = new ReportAssets(HEADER, BODY);
+        assertThat(assets.getFiles()).hasSize(4);
+        assertThat(assets.getHeader())
+            .doesNotContain("data:", "color: red")
+            .contains("<link rel=\"stylesheet\" href=\"assets/");
+        assertThat(assets.getFiles().keySet().stream().map(name -> name.substring(name.lastIndexOf('.') + 1)))
+            .containsExactlyInAnyOrder("ico", "css", "png", "js");
+
+        final String body = assets.getBody().render(Map.of("Slices", "1"));
+        assertThat(body)
+            .contains("<!-- <script>commented();</script> -->")
+            .contains("<script>const slices = [1];</script>")
+            .doesNotContain("const a = 1;");
+    }
+
+    @Test
+    void testIdenticalContentSharesAsset() {
+        final ReportAssets assets = new ReportAssets("<style>x</style>", "<style>x</style>");
+        assertThat(assets.getFiles()).hasSize(1);
+        assertThat(assets.getHeader()).isEqualTo(assets.getBody().render(Map.of()));
+    }
+
+    @Test
+    void testWriteAssets(@TempDir final Path tmp) throws IOException {
+        final ReportAssets assets = new ReportAssets(HEADER, BODY);
+        final File folder = tmp.resolve(ReportAssets.ASSETS_FOLDER).toFile();
+        assets.writeTo(folder);
+        assertThat(folder.list()).containsExactlyInAnyOrder(assets.getFiles().keySet().toArray(new String[0]));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class TestReportData {
+
+    private static TestResult result(final String clazz, final Result status) {
+        final Testcase tc = new Testcase();
+        tc.setClazz(clazz);
+        tc.setMethod("m");
+        tc.setFeatureName(clazz + " feature");
+        tc.setScenarioName(clazz + " scenario");
+        final TestResult tr = TestResult.fromTestcase(tc);
+        tr.setStatus(status);
+        return tr;
+    }
+
+    private static AfoData afo(final String id, final Result status, final TestResult... results) {
+        final AfoData afo = new AfoData(id, "title " + id);
+        afo.setStatus(status);
+        afo.setResults(new ArrayList<>(List.of(results)));
+        return afo;
+    }
+
+    private static JSONObject write(final List<AfoData> afos, final List<TestResult> unreferenced) throws IOException {
+        final ResultStore.Builder builder = ResultStore.builder();
+        afos.forEach(afo -> afo.getResults().forEach(builder::addResult));
+        unreferenced.forEach(builder::addResult);
+        afos.forEach(afo -> builder.addAfo(afo.getResults()));
+        unreferenced.forEach(builder::addUnreferenced);
+        final StringWriter writer = new StringWriter();
+        ReportData.write(writer, afos, builder.build());
+        final String payload = writer.toString();
+        final String prefix = "var " + ReportData.VARIABLE + " = ";
+        assertThat(payload).startsWith(prefix).endsWith(";\n");
+        return new JSONObject(payload.substring(prefix.length(), payload.length() - 2));
+    }
+
+    @Test
+    void testSharedTestcasesWrittenOnce() throws IOException {
+        final TestResult tr1 = result("B", Result.PASSED);
+        final TestResult tr2 = result("A", Result.FAILED);
+        final TestResult unref = result("C", Result.SKIPPED);
+        final JSONObject data = write(
+            List.of(afo("A_2", Result.FAILED, tr1, tr2), afo("A_1", Result.PASSED, tr1), afo("A_3", Result.UNKNOWN)),
+            List.of(unref));
+
+        final JSONArray testcases = data.getJSONArray("testcases");
+        assertThat(testcases.length()).isEqualTo(3);
+        assertThat(testcases.getJSONArray(0).getString(0)).isEqualTo("passed");
+        assertThat(testcases.getJSONArray(0).getString(1)).isEqualTo("B feature");
+
+        final JSONArray afos = data.getJSONArray("afos");
+        assertThat(afos.length()).isEqualTo(3);
+        assertThat(afos.getJSONArray(0).getString(0)).isEqualTo("A_1");
+        assertThat(afos.getJSONArray(0).getJSONArray(8).getInt(0)).isZero();
+        // test results of an afo sorted by class, so A before B
+        assertThat(afos.getJSONArray(1).getString(2)).isEqualTo("failed");
+        assertThat(afos.getJSONArray(1).getJSONArray(8).getInt(0)).isEqualTo(1);
+        assertThat(afos.getJSONArray(1).getJSONArray(8).getInt(1)).isZero();
+        assertThat(afos.getJSONArray(2).getJSONArray(8).length()).isZero();
+
+        assertThat(data.getJSONArray("unreferenced").getInt(0)).isEqualTo(2);
+        assertThat(testcases.getJSONArray(2).getString(0)).isEqualTo("skipped");
+    }
+
+    @Test
+    void testDeletedAfoStatus() throws IOException {
+        final AfoData deleted = afo("A_1", Result.UNKNOWN);
+        deleted.setAfoStatus(AfoStatus.DELETED);
+        final JSONArray row = write(List.of(deleted), List.of()).getJSONArray("afos").getJSONArray(0);
+        assertThat(row.getString(2)).isEqualTo("deleted");
+        assertThat(row.getString(3)).isEqualTo("deleted");
+        assertThat(row.isNull(6)).isTrue();
+    }
+}
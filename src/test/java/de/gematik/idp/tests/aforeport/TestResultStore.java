@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TestResultStore {
+
+    private static Testcase testcase(final String clazz, final String method) {
+        final Testcase tc = new Testcase();
+        tc.setClazz(clazz);
+        tc.setMethod(method);
+        tc.setFeatureName(clazz + " feature");
+        tc.setScenarioName(method + " scenario");
+        tc.setPath("features/" + clazz + ".feature");
+        return tc;
+    }
+
+    private static TestResult result(final String clazz, final String method, final Result status) {
+        final TestResult tr = TestResult.fromTestcase(testcase(clazz, method));
+        tr.setStatus(status);
+        return tr;
+    }
+
+    @Test
+    void testLaterResultReplacesEarlierOne() {
+        final ResultStore store = ResultStore.builder()
+            .addResult(result("A", "m", Result.FAILED))
+            .addResult(result("A", "m", Result.PASSED))
+            .addResult(result("A", "n", Result.SKIPPED))
+            .build();
+        assertThat(store.getResultCount()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getStatus(0)).isEqualTo(Result.PASSED);
+        assertThat(store.getClazz(0)).isEqualTo("A");
+        assertThat(store.getMethod(1)).isEqualTo("n");
+        assertThat(store.getScenarioName(1)).isEqualTo("n scenario");
+        assertThat(store.getPath(1)).isEqualTo("features/A.feature");
+    }
+
+    @Test
+    void testAfoLinksSortedByClass() {
+        final ResultStore.Builder builder = ResultStore.builder()
+            .addResult(result("B", "m", Result.PASSED))
+            .addResult(result("A", "m", Result.FAILED))
+            .addResult(result("C", "m", Result.SKIPPED));
+        assertThat(builder.addAfo(List.of(testcase("B", "m"), testcase("X", "m"), testcase("A", "m"))))
+            .isEqualTo(Result.FAILED);
+        assertThat(builder.addAfo(null)).isEqualTo(Result.UNKNOWN);
+        assertThat(builder.addAfo(List.of(testcase("C", "m"), testcase("B", "m")))).isEqualTo(Result.PASSED);
+        assertThat(builder.getAfoTestcaseCount(0)).isEqualTo(2);
+        final ResultStore store = builder.build();
+
+        assertThat(store.getAfoCount()).isEqualTo(3);
+        assertThat(store.getAfoTestcases(0)).containsExactly(1, 0);
+        assertThat(store.getAfoTestcaseCount(1)).isZero();
+        assertThat(store.getAfoTestcases(2)).containsExactly(0, 2);
+    }
+
+    @Test
+    void testUnreferencedWithoutResultAreUnknown() {
+        final ResultStore store = ResultStore.builder()
+            .addResult(result("B", "m", Result.PASSED))
+            .addUnreferenced(testcase("B", "m"))
+            .addUnreferenced(testcase("A", "m"))
+            .build();
+        assertThat(store.getResultCount()).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getUnreferenced()).containsExactly(1, 0);
+        assertThat(store.getStatus(1)).isEqualTo(Result.UNKNOWN);
+        assertThat(store.getFeatureName(1)).isEqualTo("A feature");
+    }
+
+    @Test
+    void testErrorDetailsKept() {
+        final TestResult tr = result("A", "m", Result.FAILED);
+        tr.setSuite("suite");
+        tr.setErrmessage("message");
+        tr.setErrtype("java.lang.AssertionError");
+        tr.setErrdetails("details");
+        final CapturedOutput sysout = CapturedOutput.of("out");
+        tr.setErrsysout(sysout);
+        final ResultStore store = ResultStore.builder()
+            .addResult(tr)
+            .addUnreferenced(testcase("B", "m"))
+            .build();
+        assertThat(store.getSuite(0)).isEqualTo("suite");
+        assertThat(store.getErrmessage(0)).isEqualTo("message");
+        assertThat(store.getErrtype(0)).isEqualTo("java.lang.AssertionError");
+        assertThat(store.getErrdetails(0)).isEqualTo("details");
+        assertThat(store.getErrsysout(0)).isSameAs(sysout);
+        assertThat(store.getErrsyserr(0)).isNull();
+        assertThat(store.getErrmessage(1)).isNull();
+        assertThat(store.getErrsysout(1)).isNull();
+    }
+
+    @Test
+    void testManyResults() {
+        final ResultStore.Builder builder = ResultStore.builder();
+        final List<Testcase> testcases = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            builder.addResult(result("Clazz" + i % 100, "method" + i, Result.values()[i % 4]));
+            testcases.add(testcase("Clazz" + i % 100, "method" + i));
+        }
+        builder.addAfo(testcases);
+        final ResultStore store = builder.build();
+        assertThat(store.getResultCount()).isEqualTo(10000);
+        assertThat(store.getAfoTestcaseCount(0)).isEqualTo(10000);
+        final int row = store.getAfoTestcases(0)[0];
+        assertThat(store.getClazz(row)).isEqualTo("Clazz0");
+        assertThat(store.getMethod(row)).isEqualTo("method0");
+        assertThat(store.getStatus(row)).isEqualTo(Result.PASSED);
+    }
+
+    @Test
+    void testNullClassAndMethod() {
+        final ResultStore.Builder builder = ResultStore.builder()
+            .addResult(result(null, null, Result.PASSED));
+        assertThat(builder.addAfo(List.of(testcase(null, null)))).isEqualTo(Result.PASSED);
+        final ResultStore store = builder.build();
+        assertThat(store.getClazz(0)).isNull();
+        assertThat(store.getMethod(0)).isNull();
+    }
+
+    @Test
+    void testResultsAfterAfosNotAllowed() {
+        final ResultStore.Builder builder = ResultStore.builder();
+        builder.addAfo(List.of());
+        assertThatThrownBy(() -> builder.addResult(result("A", "m", Result.PASSED)))
+            .isInstanceOf(IllegalStateException.class);
+        builder.addUnreferenced(testcase("A", "m"));
+        assertThatThrownBy(() -> builder.addAfo(List.of())).isInstanceOf(IllegalStateException.class);
+    }
+}
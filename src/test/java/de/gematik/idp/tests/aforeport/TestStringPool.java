@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TestStringPool {
+
+    @Test
+    void testEqualStringsShareInstance() {
+        final StringPool pool = new StringPool();
+        final String first = new String("de.gematik.SomeTest");
+        final String second = new String("de.gematik.SomeTest");
+        assertThat(pool.intern(first)).isSameAs(first);
+        assertThat(pool.intern(second)).isSameAs(first);
+        assertThat(pool.intern(first)).isSameAs(first);
+        assertThat(pool.intern((String) null)).isNull();
+
+        assertThat(pool.getRequests()).isEqualTo(3);
+        assertThat(pool.getDuplicates()).isEqualTo(1);
+        assertThat(pool.getSavedBytes()).isEqualTo(40 + "de.gematik.SomeTest".length());
+    }
+
+    @Test
+    void testInternTestResults() {
+        final StringPool pool = new StringPool();
+        final TestResult tr1 = createResult("method1");
+        final TestResult tr2 = createResult("method2");
+        pool.internAll(List.of(tr1, tr2));
+
+        assertThat(tr2.getClazz()).isSameAs(tr1.getClazz());
+        assertThat(tr2.getFeatureName()).isSameAs(tr1.getFeatureName());
+        assertThat(tr2.getPath()).isSameAs(tr1.getPath());
+        assertThat(tr2.getSuite()).isSameAs(tr1.getSuite());
+        assertThat(tr2.getMethod()).isEqualTo("method2");
+        assertThat(tr2.getKey()).isEqualTo(TestKey.of("Clazz", "method2"));
+        assertThat(pool.getDuplicates()).isEqualTo(4);
+    }
+
+    private static TestResult createResult(final String method) {
+        final TestResult tr = new TestResult();
+        tr.setClazz(new String("Clazz"));
+        tr.setMethod(method);
+        tr.setFeatureName(new String("Feature"));
+        tr.setPath(new String("features/some.feature"));
+        tr.setSuite(new String("Suite"));
+        return tr;
+    }
+}
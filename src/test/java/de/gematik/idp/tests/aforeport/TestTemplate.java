@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TestTemplate {
+
+    @Test
+    void testRenderSlots() {
+        final Template template = Template.compile("<li class=\"${status}\">${AfoID}: ${AfoTitle}</li>");
+        assertThat(template.getSlotNames()).containsExactly("status", "AfoID", "AfoTitle");
+        assertThat(template.render(Map.of("status", "passed", "AfoID", "A_1", "AfoTitle", "Titel")))
+            .isEqualTo("<li class=\"passed\">A_1: Titel</li>");
+    }
+
+    @Test
+    void testUnknownAndInvalidSlotsKeptLiteral() {
+        final Template template = Template.compile("${a-b} `${startX}` ${x} ${ ${");
+        assertThat(template.getSlotNames()).containsExactly("startX", "x");
+        assertThat(template.render(Map.of("x", "1"))).isEqualTo("${a-b} `${startX}` 1 ${ ${");
+    }
+
+    @Test
+    void testNullValueRendersEmpty() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("x", null);
+        assertThat(Template.compile("[${x}]").render(values)).isEqualTo("[]");
+    }
+
+    @Test
+    void testValuesAreNotRescanned() {
+        final Template template = Template.compile("${a}${b}");
+        assertThat(template.render(Map.of("a", new StringBuilder("${b}"), "b", "B")))
+            .isEqualTo("${b}B");
+    }
+
+    @Test
+    void testSectionWritesToOutput() throws Exception {
+        final StringWriter writer = new StringWriter();
+        Template.compile("<ul>${Entries}</ul>").render(writer,
+            Map.of("Entries", (Template.Section) out -> out.append("<li>1</li>").append("<li>2</li>")));
+        assertThat(writer).hasToString("<ul><li>1</li><li>2</li></ul>");
+    }
+}
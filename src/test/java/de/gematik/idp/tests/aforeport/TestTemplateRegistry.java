@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestTemplateRegistry {
+
+    @TempDir
+    Path tmp;
+
+    @AfterEach
+    void clearRegistry() {
+        TemplateRegistry.clear();
+    }
+
+    private void writeTemplate(final String name, final String content) throws IOException {
+        FileUtils.writeStringToFile(new File(tmp.toFile(), name), content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testInternalTemplatesLoadedOnce() {
+        final TemplateRegistry templates = TemplateRegistry.forFolder(null);
+        assertThat(templates.getHeader()).isNotEmpty();
+        assertThat(templates.getBody().getSlotNames()).contains("AfosTested", "AfosUnTested");
+        assertThat(TemplateRegistry.forFolder(null)).isSameAs(templates);
+    }
+
+    @Test
+    void testTemplatesFromFolder() throws IOException {
+        writeTemplate("header.html", "<html>");
+        writeTemplate("body.html", "${AfosTested}${AfosUnTested}${ScenariosUnreferenced}");
+        writeTemplate("afoentry.html", "${AfoID}${Testresults}");
+        writeTemplate("tcentry.html", "${TCStatus}${TCMethod}");
+        final TemplateRegistry templates = TemplateRegistry.forFolder(tmp.toString());
+        assertThat(templates.getHeader()).isEqualTo("<html>");
+        assertThat(templates.getTcentry().getSlotNames()).containsExactly("TCStatus", "TCMethod");
+        assertThat(TemplateRegistry.forFolder(tmp.toString())).isSameAs(templates);
+    }
+
+    @Test
+    void testMissingPlaceholderFailsFast() throws IOException {
+        writeTemplate("header.html", "<html>");
+        writeTemplate("body.html", "${AfosTested}${ScenariosUnreferenced}");
+        writeTemplate("afoentry.html", "${AfoID}${Testresults}");
+        writeTemplate("tcentry.html", "${TCStatus}${TCMethod}");
+        assertThatThrownBy(() -> TemplateRegistry.forFolder(tmp.toString()))
+            .isInstanceOf(AfoReporterException.class)
+            .hasMessageContaining("body.html")
+            .hasMessageContaining("AfosUnTested");
+    }
+
+    @Test
+    void testMissingTemplateFileFails() {
+        assertThatThrownBy(() -> TemplateRegistry.forFolder(tmp.toString()))
+            .isInstanceOf(AfoReporterException.class)
+            .hasMessageContaining("header.html");
+    }
+}
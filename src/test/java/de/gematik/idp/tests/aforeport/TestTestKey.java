@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021 gematik GmbH
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.idp.tests.aforeport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import org.junit.jupiter.api.Test;
+
+class TestTestKey {
+
+    @Test
+    void testKeysAreInterned() {
+        final TestKey key = TestKey.of("Clazz", "method");
+        assertThat(TestKey.of("Clazz", "method")).isSameAs(key);
+        assertThat(TestKey.of("Clazz", "method2")).isNotEqualTo(key);
+        assertThat(key).hasToString("Clazz:method");
+    }
+
+    @Test
+    void testTestcaseKeyFollowsClassAndMethod() {
+        final Testcase tc = new Testcase();
+        tc.setClazz("Clazz");
+        tc.setMethod("method");
+        final TestKey key = tc.getKey();
+        assertThat(tc.getKey()).isSameAs(key).isEqualTo(TestKey.of("Clazz", "method"));
+        assertThat(tc.hashCode()).isEqualTo(key.hashCode());
+
+        tc.setMethod("other");
+        assertThat(tc.getKey()).isEqualTo(TestKey.of("Clazz", "other"));
+    }
+
+    @Test
+    void testNullParts() {
+        assertThat(TestKey.of(null, "method")).isEqualTo(TestKey.of(null, "method"));
+        assertThat(TestKey.of(null, "method")).isNotEqualTo(TestKey.of("null", "method"));
+    }
+
+    @Test
+    void testInterningKeepsKey() {
+        final Testcase tc = new Testcase();
+        tc.setClazz(new String("Clazz"));
+        tc.setMethod("method");
+        final TestKey key = tc.getKey();
+        new StringPool().intern(tc);
+        tc.setMethod(new String("method"));
+        assertThat(tc.getKey()).isSameAs(key);
+    }
+
+    @Test
+    void testPoolDoesNotKeepKeysAlive() {
+        final WeakReference<TestKey> ref = new WeakReference<>(TestKey.of("Clazz", "released"));
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+        }
+        assertThat(ref.get()).isNull();
+
+        final TestKey key = TestKey.of("Clazz", "released");
+        assertThat(TestKey.of("Clazz", "released")).isSameAs(key);
+    }
+}
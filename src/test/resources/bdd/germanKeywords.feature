@@ -0,0 +1,29 @@
+# language: de
+@testsuite
+Funktionalität: Deutsche Schlüsselwörter
+
+  Hintergrund:
+    Angenommen der Discovery Endpunkt ist konfiguriert
+    Und der Client ist registriert
+
+  @Afo:A_20668
+  Szenario: Disc - Discovery Dokument muss verfügbar sein
+    Wenn das Discovery Dokument angefragt wird
+    Dann ist der Status der Antwort 200
+    Aber die Antwort enthält keinen Fehler
+
+  @Afo:A_20668
+  Beispiel: Disc - Discovery Dokument ist signiert
+    Gegeben sei ein Discovery Dokument
+    Wenn die Signatur geprüft wird
+    Dann ist die Signatur gültig
+
+  @Afo:A_20614
+  Szenariogrundriss: Disc - Discovery Dokument mit <Parameter>
+    Wenn das Discovery Dokument mit <Parameter> angefragt wird
+    Dann ist der Status der Antwort 200
+
+    Beispiele:
+      | Parameter |
+      | a         |
+      | b         |